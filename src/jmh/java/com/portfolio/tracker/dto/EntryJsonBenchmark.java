@@ -0,0 +1,51 @@
+package com.portfolio.tracker.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.service.SyntheticEntries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of entry listings: {@link PortfolioEntry} entities as the listing endpoints
+ * used to return them, against the {@link PortfolioEntryView} rows they return now. Both produce the
+ * same JSON. The mapper is configured the way Spring Boot configures the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EntryJsonBenchmark {
+
+    @Param({"1000", "50000", "100000", "1000000"})
+    public int entries;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<PortfolioEntry> entities;
+    private List<PortfolioEntryView> views;
+
+    @Setup
+    public void setUp() {
+        entities = SyntheticEntries.entries(entries);
+        views = SyntheticEntries.views(entities);
+    }
+
+    @Benchmark
+    public byte[] entities() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] views() throws Exception {
+        return objectMapper.writeValueAsBytes(views);
+    }
+}
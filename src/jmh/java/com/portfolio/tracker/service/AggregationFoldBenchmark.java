@@ -0,0 +1,54 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.ContributionDto;
+import com.portfolio.tracker.dto.PortfolioDashboardDto;
+import com.portfolio.tracker.model.ContributionBucket;
+import com.portfolio.tracker.model.PortfolioEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link PortfolioFolds} that {@link PortfolioService} runs over aggregate query rows (merges with
+ * BigDecimal::add), fed one row per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AggregationFoldBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private final PortfolioFolds folds = new PortfolioFolds();
+
+    private List<AccountEntryGroupAmount> accountGroupRows;
+    private List<BucketTypeAmount> bucketRows;
+
+    @Setup
+    public void setUp() {
+        List<PortfolioEntry> data = SyntheticEntries.entries(entries);
+        accountGroupRows = SyntheticEntries.accountGroupRows(data);
+        bucketRows = SyntheticEntries.bucketRows(data);
+    }
+
+    @Benchmark
+    public PortfolioDashboardDto dashboard() {
+        return folds.toDashboard(accountGroupRows);
+    }
+
+    @Benchmark
+    public List<ContributionDto> contributions() {
+        return folds.toContributions(bucketRows, ContributionBucket.WEEK);
+    }
+}
@@ -0,0 +1,64 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link ExportService}'s streaming CSV and XLSX writers, the path the export endpoints and jobs use.
+ * Entries come from a stub in place of the database stream and the output is discarded, so the
+ * numbers are the cost of formatting and (for XLSX) spilling rows to the workbook's temp file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private final User user = new User("bench@example.com", "Bench", "bench", null);
+    private ExportService exportService;
+
+    @Setup
+    public void setUp() {
+        exportService = new ExportService(new StubEntrySource(SyntheticEntries.entries(entries)));
+    }
+
+    @Benchmark
+    public void csv() throws IOException {
+        exportService.writeEntriesToCsv(user, null, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void xlsx() throws IOException {
+        exportService.writeEntriesToXlsx(user, null, OutputStream.nullOutputStream());
+    }
+
+    private static class StubEntrySource extends PortfolioService {
+        private final List<PortfolioEntry> entries;
+
+        StubEntrySource(List<PortfolioEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public void forEachEntry(User user, UUID accountId, Consumer<PortfolioEntry> action) {
+            entries.forEach(action);
+        }
+    }
+}
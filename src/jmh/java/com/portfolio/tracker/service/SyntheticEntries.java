@@ -0,0 +1,97 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic portfolio data for the benchmarks: entries spread over a handful of
+ * accounts, currencies, countries and sources, with two-decimal amounts and dates over five years.
+ */
+public final class SyntheticEntries {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "INR", "JPY", "CHF", "CAD", "AUD"};
+    private static final String[] COUNTRIES = {"US", "DE", "GB", "IN", "JP", "CH", "CA", "AU", "FR", "NL"};
+    private static final String[] SOURCES = {"Broker A", "Broker B", "Bank", "Exchange", "Employer", "Direct"};
+    private static final EntryType[] TYPES = EntryType.values();
+    private static final int ACCOUNTS = 20;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+    private SyntheticEntries() {
+    }
+
+    public static List<PortfolioEntry> entries(int count) {
+        List<PortfolioAccount> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            PortfolioAccount account = new PortfolioAccount();
+            account.setId(UUID.nameUUIDFromBytes(("account-" + i).getBytes()));
+            account.setName("Account " + i);
+            account.setRelationship(i % 3 == 0 ? "Spouse" : "Self");
+            accounts.add(account);
+        }
+        Random random = new Random(42);
+        List<PortfolioEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PortfolioEntry entry = new PortfolioEntry();
+            entry.setId(new UUID(random.nextLong(), random.nextLong()));
+            entry.setAccount(accounts.get(random.nextInt(ACCOUNTS)));
+            entry.setType(TYPES[random.nextInt(TYPES.length)]);
+            entry.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            entry.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            entry.setSource(SOURCES[random.nextInt(SOURCES.length)]);
+            entry.setAmount(BigDecimal.valueOf(random.nextInt(10_000_000) + 1, 2));
+            entry.setNotes(i % 4 == 0 ? "Monthly contribution " + i : null);
+            entry.setDateAdded(START.plusMinutes(random.nextInt(5 * 365 * 24 * 60)));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static List<PortfolioEntryView> views(List<PortfolioEntry> entries) {
+        return entries.stream()
+            .map(e -> new PortfolioEntryView(e.getId(), e.getDateAdded(), e.getType(), e.getSource(), e.getAmount(),
+                e.getCurrency(), e.getCountry(), e.getNotes(),
+                e.getAccount().getId(), e.getAccount().getName(), e.getAccount().getRelationship()))
+            .toList();
+    }
+
+    // One aggregate row per entry: the worst case, where the database grouped nothing together
+
+    public static List<AccountEntryGroupAmount> accountGroupRows(List<PortfolioEntry> entries) {
+        return entries.stream()
+            .map(e -> (AccountEntryGroupAmount) new AccountGroupRow(e.getAccount().getId(), e.getAccount().getName(),
+                e.getType(), e.getCurrency(), e.getCountry(), e.getSource(), e.getAmount()))
+            .toList();
+    }
+
+    public static List<BucketTypeAmount> bucketRows(List<PortfolioEntry> entries) {
+        return entries.stream()
+            .map(e -> (BucketTypeAmount) new BucketRow(e.getDateAdded().toLocalDate().atStartOfDay(), e.getType(), e.getAmount()))
+            .toList();
+    }
+
+    private record AccountGroupRow(UUID getAccountId, String getAccountName, EntryType getType, String getCurrency,
+                                   String getCountry, String getSource, BigDecimal getTotal) implements AccountEntryGroupAmount {
+        @Override
+        public long getEntryCount() {
+            return 1;
+        }
+    }
+
+    private record BucketRow(LocalDateTime getBucket, EntryType getType, BigDecimal getTotal) implements BucketTypeAmount {
+        @Override
+        public long getEntryCount() {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.portfolio.tracker.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-scenario latencies and outcomes. Latency is measured from the moment a request was
+ * <em>scheduled</em> to be sent, not when it actually went out, so queueing inside the harness or
+ * the server while it falls behind is counted instead of hidden (coordinated omission).
+ */
+final class LatencyRecorder {
+
+    private final Map<Scenario, Samples> samples = new EnumMap<>(Scenario.class);
+
+    LatencyRecorder() {
+        for (Scenario scenario : Scenario.values()) {
+            samples.put(scenario, new Samples());
+        }
+    }
+
+    void record(Scenario scenario, long latencyNanos, boolean success) {
+        samples.get(scenario).add(latencyNanos, success);
+    }
+
+    Map<Scenario, Summary> summarize(double seconds) {
+        Map<Scenario, Summary> summaries = new EnumMap<>(Scenario.class);
+        samples.forEach((scenario, recorded) -> summaries.put(scenario, recorded.summarize(seconds)));
+        return summaries;
+    }
+
+    Summary total(double seconds) {
+        Samples all = new Samples();
+        samples.values().forEach(all::addAll);
+        return all.summarize(seconds);
+    }
+
+    record Summary(long requests, long errors, double throughput, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong count = new AtomicLong();
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            count.incrementAndGet();
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        synchronized void addAll(Samples other) {
+            synchronized (other) {
+                for (int i = 0; i < other.size; i++) {
+                    add(other.latencies[i], true);
+                }
+                errors.add(other.errors.sum());
+            }
+        }
+
+        synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Summary(count.get(), errors.sum(), count.get() / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
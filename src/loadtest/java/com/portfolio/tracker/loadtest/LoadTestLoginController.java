@@ -0,0 +1,59 @@
+package com.portfolio.tracker.loadtest;
+
+import com.portfolio.tracker.model.PortfolioOidcUser;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signs a synthetic user in without Google: creates or updates the user the way
+ * {@link com.portfolio.tracker.service.CustomOidcUserService} does after a real login, and stores the
+ * same kind of {@link PortfolioOidcUser} principal in a new HTTP session. Requests carrying the
+ * returned session cookie are then authenticated exactly like a browser session.
+ */
+@RestController
+@RequestMapping("/loadtest")
+public class LoadTestLoginController {
+
+    @Autowired
+    private UserService userService;
+
+    private final SecurityContextRepository contextRepository = new HttpSessionSecurityContextRepository();
+
+    @PostMapping("/login")
+    public Map<String, Object> login(@RequestParam String email, HttpServletRequest request, HttpServletResponse response) {
+        String subject = "loadtest-" + email;
+        User user = userService.processOAuthPostLogin(email, "Load Test " + email, subject, null);
+
+        Instant now = Instant.now();
+        Map<String, Object> claims = Map.of("sub", subject, "email", email, "name", user.getName());
+        OidcIdToken idToken = new OidcIdToken("loadtest", now, now.plus(Duration.ofDays(1)), claims);
+        OidcUserInfo userInfo = new OidcUserInfo(claims);
+        PortfolioOidcUser principal = new PortfolioOidcUser(List.of(new OidcUserAuthority(idToken, userInfo)), idToken, userInfo, user.getId());
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+        request.getSession(true);
+        contextRepository.saveContext(context, request, response);
+        return Map.of("userId", user.getId());
+    }
+}
@@ -0,0 +1,242 @@
+package com.portfolio.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.tracker.PortfolioTrackerApplication;
+import com.portfolio.tracker.service.PortfolioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end HTTP load test. Boots the application on a random port against embedded H2, signs in
+ * synthetic users through {@link LoadTestLoginController} instead of Google, seeds their accounts and
+ * entries over the API, then drives the {@link Scenario} mix at a fixed arrival rate and reports
+ * per-scenario p50/p95/p99, error rates and connection-pool saturation.
+ *
+ * <p>Run with {@code ./gradlew loadTest}, e.g.
+ * {@code ./gradlew loadTest -Ploadtest.rate=200 -Ploadtest.virtualThreads=true}. Running it once with
+ * and once without virtual threads compares the two request-handling modes under the same load.
+ */
+public class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private URI baseUri;
+
+    LoadTestRunner(LoadTestSettings settings) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        int exitCode;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PortfolioTrackerApplication.class)
+                .run(applicationArguments(settings, args))) {
+            exitCode = new LoadTestRunner(settings).run(context);
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Command-line arguments rather than default properties, so they win over application.properties
+     * (whose DEBUG/TRACE SQL logging would otherwise dominate the measurement).
+     */
+    private static String[] applicationArguments(LoadTestSettings settings, String[] extra) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.liquibase.enabled=false",
+                "--spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                "--spring.datasource.hikari.maximum-pool-size=" + settings.poolSize(),
+                "--portfolio.history.snapshot-cron=-",
+                "--portfolio.aggregates.reconcile-cron=-",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.com.portfolio.tracker=WARN",
+                "--logging.level.com.portfolio.tracker.loadtest=INFO",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping=WARN"));
+        arguments.addAll(List.of(extra));
+        return arguments.toArray(String[]::new);
+    }
+
+    int run(ConfigurableApplicationContext context) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUri = URI.create("http://localhost:" + port + "/");
+        logger.info("Load test against {} with {} threads, settings: {}", baseUri, settings.mode(), settings);
+
+        List<UserSession> sessions = seed();
+
+        if (settings.warmupSeconds() > 0) {
+            logger.info("Warming up for {}s at {} req/s", settings.warmupSeconds(), settings.ratePerSecond());
+            drive(sessions, settings.warmupSeconds(), new Random(1));
+        }
+
+        LatencyRecorder recorder;
+        double elapsedSeconds;
+        PoolSampler poolSampler = new PoolSampler(context.getBean(MeterRegistry.class));
+        try (poolSampler) {
+            poolSampler.start();
+            logger.info("Measuring for {}s at {} req/s", settings.durationSeconds(), settings.ratePerSecond());
+            long start = System.nanoTime();
+            recorder = drive(sessions, settings.durationSeconds(), new Random(2));
+            elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        }
+
+        LatencyRecorder.Summary total = recorder.total(elapsedSeconds);
+        String report = report(recorder.summarize(elapsedSeconds), total, poolSampler);
+        System.out.println(report);
+        Path reportPath = Path.of(settings.reportPath());
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        Files.writeString(reportPath, report);
+        logger.info("Report written to {}", reportPath.toAbsolutePath());
+
+        return checkThresholds(total);
+    }
+
+    private List<UserSession> seed() throws IOException, InterruptedException {
+        logger.info("Seeding {} users with {} accounts and {} entries each", settings.users(), settings.accountsPerUser(), settings.entriesPerUser());
+        Random random = new Random(0);
+        List<UserSession> sessions = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            String email = "user" + i + "@loadtest.local";
+            HttpResponse<String> login = send(HttpRequest.newBuilder(baseUri.resolve("/loadtest/login?email=" + email))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), "log in " + email);
+            String cookie = login.headers().firstValue("Set-Cookie")
+                    .map(header -> header.substring(0, header.indexOf(';') > 0 ? header.indexOf(';') : header.length()))
+                    .orElseThrow(() -> new IllegalStateException("No session cookie returned for " + email));
+
+            List<UUID> accountIds = new ArrayList<>();
+            for (int a = 0; a < settings.accountsPerUser(); a++) {
+                String account = objectMapper.writeValueAsString(Map.of("name", "Account " + a, "relationship", a == 0 ? "Self" : "Family"));
+                JsonNode created = objectMapper.readTree(send(json("/api/accounts", cookie, account), "create account for " + email).body());
+                accountIds.add(UUID.fromString(created.get("id").asText()));
+            }
+
+            for (int offset = 0; offset < settings.entriesPerUser(); offset += PortfolioService.MAX_BATCH_OPERATIONS) {
+                int count = Math.min(PortfolioService.MAX_BATCH_OPERATIONS, settings.entriesPerUser() - offset);
+                StringJoiner batch = new StringJoiner(",", "[", "]");
+                for (int e = 0; e < count; e++) {
+                    UUID accountId = accountIds.get(random.nextInt(accountIds.size()));
+                    batch.add("{\"action\":\"CREATE\",\"entry\":" + SyntheticData.entryJson(accountId, random) + "}");
+                }
+                send(json("/api/portfolio/entries/batch", cookie, batch.toString()), "seed entries for " + email);
+            }
+            sessions.add(new UserSession(email, cookie, List.copyOf(accountIds)));
+        }
+        return sessions;
+    }
+
+    /**
+     * Open-model load: request {@code i} is due at {@code start + i / rate} whether or not earlier
+     * requests have finished, and each one runs on its own virtual thread. A slow server therefore
+     * builds up in-flight requests and latency instead of quietly lowering the offered rate.
+     */
+    private LatencyRecorder drive(List<UserSession> sessions, int seconds, Random random) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond();
+        long requests = (long) settings.ratePerSecond() * seconds;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < requests; i++) {
+                long intendedStart = start + i * intervalNanos;
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = Scenario.pick(random);
+                HttpRequest request = scenario.build(baseUri, sessions.get(random.nextInt(sessions.size())), random);
+                executor.execute(() -> {
+                    boolean success;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        success = response.statusCode() < 400;
+                    } catch (Exception e) {
+                        logger.debug("Request {} failed: {}", request.uri(), e.getMessage());
+                        success = false;
+                    }
+                    recorder.record(scenario, System.nanoTime() - intendedStart, success);
+                });
+            }
+        }
+        return recorder;
+    }
+
+    private String report(Map<Scenario, LatencyRecorder.Summary> scenarios, LatencyRecorder.Summary total, PoolSampler poolSampler) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Load test: %s threads, %d req/s for %ds, %d users x %d entries, pool size %d%n",
+                settings.mode(), settings.ratePerSecond(), settings.durationSeconds(), settings.users(), settings.entriesPerUser(), settings.poolSize()));
+        report.append(String.format("%-14s %9s %8s %9s %9s %9s %9s %9s%n", "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        scenarios.forEach((scenario, summary) -> report.append(row(scenario.name().toLowerCase(), summary)));
+        report.append(row("total", total));
+        report.append(poolSampler.describe()).append(System.lineSeparator());
+        return report.toString();
+    }
+
+    private static String row(String name, LatencyRecorder.Summary summary) {
+        return String.format("%-14s %9d %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, summary.requests(), summary.errorRate() * 100,
+                summary.throughput(), summary.p50Millis(), summary.p95Millis(), summary.p99Millis(), summary.maxMillis());
+    }
+
+    private int checkThresholds(LatencyRecorder.Summary total) {
+        int exitCode = 0;
+        if (!Double.isNaN(settings.maxP99Millis()) && total.p99Millis() > settings.maxP99Millis()) {
+            logger.error("p99 latency {} ms exceeds the {} ms threshold", String.format("%.1f", total.p99Millis()), settings.maxP99Millis());
+            exitCode = 1;
+        }
+        if (!Double.isNaN(settings.maxErrorRate()) && total.errorRate() > settings.maxErrorRate()) {
+            logger.error("Error rate {} exceeds the {} threshold", String.format("%.4f", total.errorRate()), settings.maxErrorRate());
+            exitCode = 1;
+        }
+        return exitCode;
+    }
+
+    private HttpRequest json(String path, String cookie, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Cookie", cookie)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request, String action) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Could not " + action + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,25 @@
+package com.portfolio.tracker.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Opens /loadtest/** so {@link LoadTestLoginController} can sign synthetic users in. Only on the
+ * loadtest classpath; the application's own filter chain still guards everything else.
+ */
+@Configuration
+public class LoadTestSecurityConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain loadTestFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/loadtest/**")
+            .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll())
+            .csrf(csrf -> csrf.disable());
+        return http.build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.portfolio.tracker.loadtest;
+
+/**
+ * Load-test knobs, read from {@code loadtest.*} system properties (the Gradle task forwards
+ * {@code -Ploadtest.*} project properties). Rates are requests per second across all users.
+ */
+record LoadTestSettings(
+        int users,
+        int accountsPerUser,
+        int entriesPerUser,
+        int ratePerSecond,
+        int warmupSeconds,
+        int durationSeconds,
+        boolean virtualThreads,
+        int poolSize,
+        double maxP99Millis,
+        double maxErrorRate,
+        String reportPath) {
+
+    static LoadTestSettings fromSystemProperties() {
+        boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.accountsPerUser", 3),
+                Integer.getInteger("loadtest.entriesPerUser", 200),
+                Integer.getInteger("loadtest.rate", 100),
+                Integer.getInteger("loadtest.warmupSeconds", 10),
+                Integer.getInteger("loadtest.durationSeconds", 60),
+                virtualThreads,
+                Integer.getInteger("loadtest.poolSize", 5),
+                doubleProperty("loadtest.maxP99Ms"),
+                doubleProperty("loadtest.maxErrorRate"),
+                System.getProperty("loadtest.report", "build/reports/loadtest/" + (virtualThreads ? "virtual" : "platform") + ".txt"));
+    }
+
+    String mode() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private static double doubleProperty(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? Double.NaN : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,71 @@
+package com.portfolio.tracker.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the application's own Hikari and admission-control meters while the load runs, so the
+ * report shows whether latency came from waiting on the connection pool.
+ */
+final class PoolSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 100;
+
+    private final MeterRegistry registry;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("loadtest-pool-sampler").daemon().factory());
+    private final double timeoutsAtStart;
+
+    private long samples;
+    private long saturatedSamples;
+    private double maxActive;
+    private double maxPending;
+    private double maxAdmissionWaiting;
+    private double poolMax;
+
+    PoolSampler(MeterRegistry registry) {
+        this.registry = registry;
+        this.timeoutsAtStart = timeouts();
+    }
+
+    void start() {
+        scheduler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        double active = gaugeSum("hikaricp.connections.active");
+        double max = gaugeSum("hikaricp.connections.max");
+        samples++;
+        if (max > 0 && active >= max) {
+            saturatedSamples++;
+        }
+        poolMax = Math.max(poolMax, max);
+        maxActive = Math.max(maxActive, active);
+        maxPending = Math.max(maxPending, gaugeSum("hikaricp.connections.pending"));
+        maxAdmissionWaiting = Math.max(maxAdmissionWaiting, gaugeSum("portfolio.db.admission.waiting"));
+    }
+
+    synchronized String describe() {
+        double saturated = samples == 0 ? 0 : 100.0 * saturatedSamples / samples;
+        return String.format("pool: max active %.0f/%.0f, saturated %.1f%% of samples, max pending %.0f, max admission waiting %.0f, acquire timeouts %.0f",
+                maxActive, poolMax, saturated, maxPending, maxAdmissionWaiting, timeouts() - timeoutsAtStart);
+    }
+
+    private double gaugeSum(String name) {
+        return registry.find(name).gauges().stream().mapToDouble(Gauge::value).filter(Double::isFinite).sum();
+    }
+
+    private double timeouts() {
+        return registry.find("hikaricp.connections.timeout").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,74 @@
+package com.portfolio.tracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * The request mix driven against the API. Weights add up to 100 and roughly follow how the
+ * frontend uses the endpoints: the dashboard and entry list dominate, exports are rare.
+ */
+enum Scenario {
+    DASHBOARD(25, (session, random) -> get("/api/portfolio/dashboard")),
+    ENTRY_PAGE(22, (session, random) -> get("/api/portfolio?limit=50")),
+    BY_CURRENCY(10, (session, random) -> get("/api/portfolio/combined/by-currency")),
+    ACCOUNTS(10, (session, random) -> get("/api/accounts")),
+    SEARCH(10, (session, random) -> get("/api/portfolio/search?types=" + SyntheticData.randomType(random) + "&size=50")),
+    CONTRIBUTIONS(5, (session, random) -> get("/api/portfolio/contributions?bucket=month")),
+    HISTORY(5, (session, random) -> get("/api/portfolio/history")),
+    ADD_ENTRY(10, (session, random) -> post("/api/portfolio/entries", SyntheticData.entryJson(session.accountIds().get(random.nextInt(session.accountIds().size())), random))),
+    EXPORT_CSV(3, (session, random) -> get("/api/portfolio/export/csv"));
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Scenario[] BY_PERCENT = new Scenario[100];
+
+    static {
+        int next = 0;
+        for (Scenario scenario : values()) {
+            for (int i = 0; i < scenario.weight; i++) {
+                BY_PERCENT[next++] = scenario;
+            }
+        }
+        if (next != BY_PERCENT.length) {
+            throw new IllegalStateException("Scenario weights must add up to 100, got " + next);
+        }
+    }
+
+    private final int weight;
+    private final BiFunction<UserSession, Random, Request> request;
+
+    Scenario(int weight, BiFunction<UserSession, Random, Request> request) {
+        this.weight = weight;
+        this.request = request;
+    }
+
+    static Scenario pick(Random random) {
+        return BY_PERCENT[random.nextInt(BY_PERCENT.length)];
+    }
+
+    HttpRequest build(URI baseUri, UserSession session, Random random) {
+        Request spec = request.apply(session, random);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(spec.path()))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Cookie", session.cookie());
+        if (spec.body() == null) {
+            return builder.GET().build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(spec.body()))
+                .build();
+    }
+
+    private static Request get(String path) {
+        return new Request(path, null);
+    }
+
+    private static Request post(String path, String body) {
+        return new Request(path, body);
+    }
+
+    private record Request(String path, String body) {
+    }
+}
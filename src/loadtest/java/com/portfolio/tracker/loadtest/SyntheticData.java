@@ -0,0 +1,34 @@
+package com.portfolio.tracker.loadtest;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+/** Randomised but plausible entry payloads, spread over the types, currencies and dates the aggregations group by. */
+final class SyntheticData {
+
+    private static final EntryType[] TYPES = EntryType.values();
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "INR", "SGD"};
+    private static final String[] COUNTRIES = {"US", "DE", "GB", "IN", "SG"};
+    private static final String[] SOURCES = {"Broker A", "Broker B", "Bank", "Exchange", "Employer"};
+
+    private SyntheticData() {
+    }
+
+    static EntryType randomType(Random random) {
+        return TYPES[random.nextInt(TYPES.length)];
+    }
+
+    static String entryJson(UUID accountId, Random random) {
+        int market = random.nextInt(CURRENCIES.length);
+        return "{\"accountId\":\"" + accountId + "\""
+                + ",\"type\":\"" + randomType(random) + "\""
+                + ",\"source\":\"" + SOURCES[random.nextInt(SOURCES.length)] + "\""
+                + ",\"amount\":" + (1 + random.nextInt(100_000)) + "." + random.nextInt(100)
+                + ",\"currency\":\"" + CURRENCIES[market] + "\""
+                + ",\"country\":\"" + COUNTRIES[market] + "\""
+                + ",\"dateAdded\":\"" + LocalDateTime.now().minusDays(random.nextInt(730)) + "\"}";
+    }
+}
@@ -0,0 +1,8 @@
+package com.portfolio.tracker.loadtest;
+
+import java.util.List;
+import java.util.UUID;
+
+/** A signed-in synthetic user: its session cookie and the accounts seeded for it. */
+record UserSession(String email, String cookie, List<UUID> accountIds) {
+}
@@ -0,0 +1,53 @@
+package com.portfolio.tracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches for per-user portfolio summaries and the authenticated {@link com.portfolio.tracker.model.User}.
+ * Each summary cache is filled by exactly one method and keyed by user ID; entry and account
+ * mutations evict the user's keys via {@link EvictPortfolioCaches}. The user cache is
+ * refreshed on every login.
+ * Hit, miss and eviction counts are published as cache.* metrics through actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PORTFOLIO_BY_TYPE = "portfolioByType";
+    public static final String PORTFOLIO_BY_CURRENCY = "portfolioByCurrency";
+    public static final String PORTFOLIO_BY_COUNTRY = "portfolioByCountry";
+    public static final String PORTFOLIO_BY_SOURCE = "portfolioBySource";
+    public static final String PORTFOLIO_DASHBOARD = "portfolioDashboard";
+    public static final String PORTFOLIO_GROUPS = "portfolioGroups";
+    public static final String USERS = "users";
+
+    @Value("${portfolio.cache.spec:maximumSize=10000,expireAfterWrite=1m,recordStats}")
+    private String cacheSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+            PORTFOLIO_BY_TYPE,
+            PORTFOLIO_BY_CURRENCY,
+            PORTFOLIO_BY_COUNTRY,
+            PORTFOLIO_BY_SOURCE,
+            PORTFOLIO_DASHBOARD,
+            PORTFOLIO_GROUPS,
+            USERS
+        );
+        cacheManager.setCacheSpecification(cacheSpec);
+        cacheManager.setAllowNullValues(false);
+        // Defer puts and evictions until the surrounding transaction commits, so a transaction never
+        // caches data it hasn't committed. This does not close the race with a concurrent reader: one
+        // that loaded a summary before a writer committed still does its put after the writer's
+        // eviction, and that stale summary is served until it expires. The expireAfterWrite in
+        // portfolio.cache.spec is kept at one minute to bound that window.
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
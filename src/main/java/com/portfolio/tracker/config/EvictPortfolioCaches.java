@@ -0,0 +1,27 @@
+package com.portfolio.tracker.config;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Evicts every cached portfolio summary of the user passed as the {@code user} argument.
+ * Put this on any method that changes a user's entries or accounts.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@CacheEvict(cacheNames = {
+    CacheConfig.PORTFOLIO_BY_TYPE,
+    CacheConfig.PORTFOLIO_BY_CURRENCY,
+    CacheConfig.PORTFOLIO_BY_COUNTRY,
+    CacheConfig.PORTFOLIO_BY_SOURCE,
+    CacheConfig.PORTFOLIO_DASHBOARD,
+    CacheConfig.PORTFOLIO_GROUPS
+}, key = "#user.id")
+public @interface EvictPortfolioCaches {
+}
@@ -0,0 +1,60 @@
+package com.portfolio.tracker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Application metrics, read from /actuator/metrics by admins or, in the local profile, scraped in Prometheus
+ * format from /actuator/prometheus on the management port. Besides what Spring Boot
+ * binds itself (HTTP requests, spring.data.repository.invocations per repository method, hikaricp.*
+ * pool usage and acquire times, cache.*), this adds:
+ * <ul>
+ *   <li>{@value #SERVICE_TIMER}: every public method of the classes annotated with {@code @Timed}</li>
+ *   <li>{@value #AGGREGATION_ENTRIES}: entries summed per aggregation query, tagged by aggregation</li>
+ *   <li>portfolio.db.admission.*: callers waiting for and permits left on each admission-controlled pool</li>
+ * </ul>
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "portfolio.service";
+    public static final String AGGREGATION_ENTRIES = "portfolio.aggregation.entries";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder dbAdmissionMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream().forEach(dataSource -> {
+            if (dataSource instanceof ReadReplicaDataSource routing) {
+                bindAdmission(registry, routing.getPrimary(), "primary");
+                bindAdmission(registry, routing.getReplica(), "replica");
+            } else {
+                bindAdmission(registry, dataSource, "primary");
+            }
+        });
+    }
+
+    private static void bindAdmission(MeterRegistry registry, DataSource dataSource, String pool) {
+        if (!(dataSource instanceof AdmissionControlledDataSource admission)) {
+            return;
+        }
+        Gauge.builder("portfolio.db.admission.waiting", admission, AdmissionControlledDataSource::getQueueLength)
+            .description("Threads waiting to be admitted to a database connection")
+            .tag("pool", pool)
+            .register(registry);
+        Gauge.builder("portfolio.db.admission.available", admission, AdmissionControlledDataSource::getAvailablePermits)
+            .description("Connections that can be handed out without waiting")
+            .tag("pool", pool)
+            .register(registry);
+    }
+}
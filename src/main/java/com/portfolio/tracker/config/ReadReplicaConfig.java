@@ -0,0 +1,74 @@
+package com.portfolio.tracker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Optional read replica, enabled by setting portfolio.datasource.replica.jdbc-url. The replica pool is
+ * configured under portfolio.datasource.replica with Hikari's property names (username, password,
+ * maximum-pool-size, ...), and the application DataSource is wrapped in a {@link ReadReplicaDataSource}.
+ * Locally, pointing the replica at the primary database gives a second stand-in pool to route to.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "portfolio.datasource.replica", name = "jdbc-url")
+public class ReadReplicaConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    static final String REPLICA_PREFIX = "portfolio.datasource.replica";
+
+    @Bean
+    public static ReadReplicaPostProcessor readReplicaPostProcessor(Environment environment) {
+        return new ReadReplicaPostProcessor(environment);
+    }
+
+    /**
+     * Wraps the "dataSource" bean. Runs after {@link VirtualThreadConfig}'s admission control, so in
+     * virtual-thread mode the primary is already admission-controlled and the replica is given its own.
+     */
+    static class ReadReplicaPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment environment;
+
+        ReadReplicaPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary) || bean instanceof ReadReplicaDataSource) {
+                return bean;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica");
+            config.setReadOnly(true);
+            // Not a bean, so Boot won't bind its hikaricp.* metrics; registries join the global one
+            config.setMetricRegistry(Metrics.globalRegistry);
+            Binder.get(environment).bind(REPLICA_PREFIX, Bindable.ofInstance(config));
+            HikariDataSource pool = new HikariDataSource(config);
+            DataSource replica = pool;
+            if (primary instanceof AdmissionControlledDataSource admitted) {
+                replica = new AdmissionControlledDataSource(pool, pool.getMaximumPoolSize(), admitted.getTimeoutMillis());
+            }
+            logger.info("Routing read-only transactions to replica pool '{}' ({} connections)",
+                pool.getPoolName(), pool.getMaximumPoolSize());
+            return new ReadReplicaDataSource(primary, replica);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.portfolio.tracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Connections are
+ * fetched lazily, once the transaction's read-only flag is known, so
+ * {@code @Transactional(readOnly = true)} methods (and Spring Data's read methods outside a
+ * transaction) read from the replica. Threads pinned by {@link ReplicaStickiness} read from the primary.
+ */
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReadReplicaDataSource(DataSource primary, DataSource replica) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return ReplicaStickiness.isPinnedToPrimary() ? primary.getConnection() : super.getConnection();
+            }
+        });
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        closeIfPossible(replica);
+        closeIfPossible(primary);
+    }
+
+    private static void closeIfPossible(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to close DataSource", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.portfolio.tracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-your-writes for the read replica. Users who changed data within the last
+ * portfolio.datasource.read-your-writes-ms are remembered here, and their requests pin the current
+ * thread to the primary so they never read (or cache) state from before their own write. The window
+ * should exceed the replica's usual lag.
+ */
+@Component
+public class ReplicaStickiness {
+
+    private static final ThreadLocal<Boolean> primaryPinned = new ThreadLocal<>();
+
+    @Value("${portfolio.datasource.read-your-writes-ms:5000}")
+    private long windowMillis;
+
+    private Cache<UUID, Boolean> recentWriters;
+
+    @PostConstruct
+    public void init() {
+        recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(windowMillis))
+            .maximumSize(100_000)
+            .build();
+    }
+
+    public void recordWrite(UUID userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean hasRecentWrite(UUID userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    public static void pinToPrimary() {
+        primaryPinned.set(Boolean.TRUE);
+    }
+
+    /**
+     * Pins the current thread when {@code pinned} is set. Work a request hands to another thread (streamed
+     * exports, export jobs) captures {@link #isPinnedToPrimary()} on the request thread, passes it here on
+     * the worker thread and calls {@link #unpin()} in a finally block.
+     */
+    public static void pinToPrimaryIf(boolean pinned) {
+        if (pinned) {
+            pinToPrimary();
+        }
+    }
+
+    public static void unpin() {
+        primaryPinned.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return primaryPinned.get() != null;
+    }
+}
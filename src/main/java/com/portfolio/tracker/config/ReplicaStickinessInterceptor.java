@@ -0,0 +1,58 @@
+package com.portfolio.tracker.config;
+
+import com.portfolio.tracker.model.PortfolioOidcUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Pins a request to the primary database when it changes data, or when its user changed data
+ * recently (see {@link ReplicaStickiness}); completed mutating requests start the user's window.
+ */
+@Component
+public class ReplicaStickinessInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    @Autowired
+    private ReplicaStickiness stickiness;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isMutation(request) || stickiness.hasRecentWrite(currentUserId())) {
+            ReplicaStickiness.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The request thread goes back to the container; don't leave the pin on it. Async work that reads
+        // (streamed exports) re-pins its own thread from the value captured when the request was handled
+        ReplicaStickiness.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (isMutation(request)) {
+            stickiness.recordWrite(currentUserId());
+        }
+        ReplicaStickiness.unpin();
+    }
+
+    private static boolean isMutation(HttpServletRequest request) {
+        return !READ_METHODS.contains(request.getMethod());
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof PortfolioOidcUser user ? user.getUserId() : null;
+    }
+}
@@ -1,18 +1,25 @@
 package com.portfolio.tracker.config;
 
+import com.portfolio.tracker.service.CurrentUserService;
 import com.portfolio.tracker.service.CustomOidcUserService;
 import com.portfolio.tracker.service.UserService;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.core.session.SessionRegistryImpl;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.http.HttpStatus;
@@ -24,19 +31,28 @@ public class SecurityConfig {
     @Value("${spring.web.cors.allowed-origins}")
     private String frontendUrl;
 
+    // Set (loopback-only) in the local profile; -1 when the actuator shares the application port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Autowired
     private CustomOidcUserService customOAuth2UserService;
 
     @Autowired
     private UserService userService; // You'll create this service
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {        http            .authorizeHttpRequests(authorize -> authorize
                 .requestMatchers("/", "/index.html", "/static/**", "/manifest.json", "/favicon.ico", "/logo*.png", "/robots.txt").permitAll()
                 .requestMatchers("/oauth2/**", "/login/oauth2/code/google").permitAll() // Allow OAuth2 related paths
-                .requestMatchers("/actuator/**").permitAll() // Allow health checks for Railway
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll() // Allow health checks for Railway
+                .requestMatchers(prometheusOnManagementPort()).permitAll() // Local Prometheus scrapes
+                .requestMatchers("/actuator/**").access(administrators()) // Metrics and caches (incl. DELETE to clear them) are admin-only
                 .requestMatchers("/health", "/health/", "/ping", "/ping/").permitAll() // Allow simple health endpoints
-                .requestMatchers("/api/user/me", "/api/portfolio/**", "/api/accounts/**", "/api/auth/**").authenticated() // Secure your API endpoints
+                .requestMatchers("/api/user/me", "/api/portfolio/**", "/api/accounts/**", "/api/fx-rates/**", "/api/auth/**").authenticated() // Secure your API endpoints
                 .anyRequest().authenticated()
             ).oauth2Login(oauth2 -> oauth2
                 .userInfoEndpoint(userInfo -> userInfo
@@ -67,7 +83,34 @@ public class SecurityConfig {
                 .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
             );
         return http.build();
-    }    @Bean
+    }
+
+    /**
+     * Matches /actuator/prometheus when it arrives on a separate management port. The same endpoint on
+     * the application port still needs an administrator.
+     */
+    private RequestMatcher prometheusOnManagementPort() {
+        RequestMatcher prometheus = new AntPathRequestMatcher("/actuator/prometheus");
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort && prometheus.matches(request);
+    }
+
+    /**
+     * Grants access to signed-in users listed in portfolio.admin.emails.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> administrators() {
+        return (authentication, context) -> {
+            if (!(authentication.get().getPrincipal() instanceof OAuth2User principal)) {
+                return new AuthorizationDecision(false);
+            }
+            try {
+                return new AuthorizationDecision(currentUserService.isAdmin(currentUserService.resolve(principal)));
+            } catch (EntityNotFoundException e) {
+                return new AuthorizationDecision(false);
+            }
+        };
+    }
+
+    @Bean
     public SessionRegistry sessionRegistry() {
         return new SessionRegistryImpl();
     }
@@ -0,0 +1,65 @@
+package com.portfolio.tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in virtual-thread mode, switched on with spring.threads.virtual.enabled=true (VIRTUAL_THREADS=true).
+ * Spring Boot then runs Tomcat requests, async MVC (streamed exports) and @Scheduled jobs on virtual
+ * threads, and the export and snapshot workers use virtual threads too. Because far more threads can
+ * now block on JDBC than the pool has connections, the DataSource is wrapped in an
+ * {@link AdmissionControlledDataSource} that queues them fairly for a connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private static final int DEFAULT_PERMITS = 10;
+
+    @Bean
+    public static DbAdmissionPostProcessor dbAdmissionPostProcessor(Environment environment) {
+        return new DbAdmissionPostProcessor(environment);
+    }
+
+    /** Runs before {@link ReadReplicaConfig}'s routing, which then admits replica connections itself. */
+    static class DbAdmissionPostProcessor implements BeanPostProcessor, Ordered {
+        private final int configuredPermits;
+        private final long timeoutMillis;
+
+        DbAdmissionPostProcessor(Environment environment) {
+            this.configuredPermits = environment.getProperty("portfolio.db.admission.max-concurrent", Integer.class, 0);
+            this.timeoutMillis = environment.getProperty("portfolio.db.admission.timeout-ms", Long.class, 30000L);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource
+                    || bean instanceof ReadReplicaDataSource) {
+                return bean;
+            }
+            // By default admit exactly as many threads as the pool has connections
+            // (an unstarted Hikari pool reports -1 when its size is left at the default of 10)
+            int permits = configuredPermits > 0 ? configuredPermits
+                : bean instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize()
+                : DEFAULT_PERMITS;
+            logger.info("Admitting at most {} concurrent connections from DataSource '{}' (wait timeout {}ms)",
+                permits, beanName, timeoutMillis);
+            return new AdmissionControlledDataSource(dataSource, permits, timeoutMillis);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
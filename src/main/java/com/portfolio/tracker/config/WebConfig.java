@@ -1,8 +1,10 @@
 package com.portfolio.tracker.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -10,6 +12,14 @@ public class WebConfig implements WebMvcConfigurer {    // Add additional config
     
     @Value("${spring.web.cors.allowed-origins}")
     private String allowedOrigins;
+
+    @Autowired
+    private ReplicaStickinessInterceptor replicaStickinessInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(replicaStickinessInterceptor).addPathPatterns("/api/**");
+    }
     
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -17,7 +27,7 @@ public class WebConfig implements WebMvcConfigurer {    // Add additional config
                 .allowedOrigins(allowedOrigins) // Use value from properties file
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Added OPTIONS for CORS preflight
                 .allowedHeaders("*") // All headers allowed
-                .exposedHeaders("Set-Cookie", "Authorization", "X-XSRF-TOKEN") // Expose cookie headers to frontend
+                .exposedHeaders("Set-Cookie", "Authorization", "X-XSRF-TOKEN", "X-Next-Cursor", "X-Next-Page") // Expose cookie and paging headers to frontend
                 .allowCredentials(true) // Allow credentials (cookies, authorization headers)
                 .maxAge(3600); // Cache preflight requests for 1 hour (3600 seconds)
     }
@@ -1,9 +1,10 @@
 package com.portfolio.tracker.controller;
 
+import com.portfolio.tracker.dto.AccountSummaryDto;
 import com.portfolio.tracker.model.PortfolioAccount;
 import com.portfolio.tracker.model.User;
 import com.portfolio.tracker.service.PortfolioAccountService;
-import com.portfolio.tracker.service.UserService;
+import com.portfolio.tracker.service.CurrentUserService;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,23 +30,19 @@ public class AccountController {
     private PortfolioAccountService accountService;
 
     @Autowired
-    private UserService userService;
+    private CurrentUserService currentUserService;
 
     private User getAuthenticatedUser(OAuth2User oAuth2User) {
         if (oAuth2User == null) {
             logger.warn("Attempt to access account resource without authentication.");
             throw new SecurityException("User not authenticated");
         }
-        String email = oAuth2User.getAttribute("email");
-        if (email == null) {
-            logger.error("Email attribute not found in OAuth2User principal.");
-            throw new SecurityException("User email not found in authentication token");
+        try {
+            return currentUserService.resolve(oAuth2User);
+        } catch (EntityNotFoundException e) {
+            logger.error("Authenticated user {} not found in database.", oAuth2User.getName());
+            throw new EntityNotFoundException("Authenticated user not found");
         }
-        return userService.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("Authenticated user with email {} not found in database.", email);
-                    return new EntityNotFoundException("Authenticated user not found");
-                });
     }    @PostMapping({"", "/"})  // Handle both with and without trailing slash
     public ResponseEntity<?> createAccount(@RequestBody PortfolioAccount account, @AuthenticationPrincipal OAuth2User oAuth2User) {
         try {
@@ -74,7 +71,7 @@ public class AccountController {
         try {
             User user = getAuthenticatedUser(oAuth2User);
             logger.info("Received request to get all accounts for user {}", user.getEmail());
-            List<PortfolioAccount> accounts = accountService.getAllAccountsByUser(user);
+            List<AccountSummaryDto> accounts = accountService.getAccountSummariesByUser(user);
             if (accounts.isEmpty()) {
                 logger.info("No accounts found for user {}", user.getEmail());
                 return ResponseEntity.ok(accounts); // Return empty list instead of error
@@ -0,0 +1,62 @@
+package com.portfolio.tracker.controller;
+
+import com.portfolio.tracker.dto.FxRatesDto;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.service.CurrentUserService;
+import com.portfolio.tracker.service.FxRateService;
+import com.portfolio.tracker.service.FxRateSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@RestController
+@RequestMapping({"/api/fx-rates", "/api/fx-rates/"}) // Handle both with and without trailing slash
+@CrossOrigin(origins = "${spring.web.cors.allowed-origins}", allowedHeaders = "*", allowCredentials = "true", methods = {
+    RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS
+})
+public class FxRateController {
+    private static final Logger logger = LoggerFactory.getLogger(FxRateController.class);
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @GetMapping
+    public ResponseEntity<FxRatesDto> getRates() {
+        return ResponseEntity.ok(toDto(fxRateService.getSnapshot()));
+    }
+
+    // Replaces the whole rate set; body maps currency code to the value of one unit in the reference currency
+    @PutMapping
+    public ResponseEntity<?> replaceRates(@RequestBody Map<String, BigDecimal> rates, @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = currentUserService.resolve(principal);
+        if (!currentUserService.isAdmin(currentUser)) {
+            logger.warn("User {} attempted to replace FX rates without admin rights", currentUser.getEmail());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        logger.info("Received {} FX rates from admin: {}", rates.size(), currentUser.getEmail());
+        try {
+            return ResponseEntity.ok(toDto(fxRateService.replaceRates(rates)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected FX rate upload from {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error replacing FX rates: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private FxRatesDto toDto(FxRateSnapshot snapshot) {
+        return new FxRatesDto(snapshot.getReferenceCurrency(), snapshot.getUpdatedAt(), snapshot.getRates());
+    }
+}
@@ -1,26 +1,55 @@
 package com.portfolio.tracker.controller;
 
+import com.portfolio.tracker.config.ReplicaStickiness;
+import com.portfolio.tracker.dto.ContributionDto;
+import com.portfolio.tracker.dto.EntryBatchOperation;
+import com.portfolio.tracker.dto.EntryBatchResult;
+import com.portfolio.tracker.dto.EntryPage;
+import com.portfolio.tracker.dto.EntrySearchCriteria;
+import com.portfolio.tracker.dto.HistoryPointDto;
+import com.portfolio.tracker.dto.PortfolioDashboardDto;
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.AggregateDimension;
+import com.portfolio.tracker.model.ContributionBucket;
+import com.portfolio.tracker.model.ExportFormat;
+import com.portfolio.tracker.model.ExportJob;
+import com.portfolio.tracker.model.ExportJobStatus;
+import com.portfolio.tracker.model.HistoryGranularity;
 import com.portfolio.tracker.model.PortfolioEntry;
 import com.portfolio.tracker.model.EntryType;
 import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioEntrySpecifications;
 import com.portfolio.tracker.service.PortfolioService;
 import com.portfolio.tracker.service.ExportService;
-import com.portfolio.tracker.service.UserService;
+import com.portfolio.tracker.service.ExportJobService;
+import com.portfolio.tracker.service.PortfolioAccountService;
+import com.portfolio.tracker.service.PortfolioImportService;
+import com.portfolio.tracker.service.PortfolioSnapshotService;
+import com.portfolio.tracker.service.PortfolioValuationService;
+import com.portfolio.tracker.service.CurrentUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID; // Added import
@@ -33,6 +62,16 @@ import java.util.UUID; // Added import
 public class PortfolioController {
     private static final Logger logger = LoggerFactory.getLogger(PortfolioController.class);
 
+    // Listing endpoints are paged by keyset when limit or cursor is given; the next page's cursor is returned in this header
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Search results are paged by offset; when another page exists its number is returned in this header
+    public static final String NEXT_PAGE_HEADER = "X-Next-Page";
+
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private PortfolioService portfolioService;
 
@@ -40,15 +79,41 @@ public class PortfolioController {
     private ExportService exportService;
 
     @Autowired
-    private UserService userService;
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private PortfolioImportService importService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private PortfolioAccountService accountService;
+
+    @Autowired
+    private PortfolioValuationService valuationService;
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
 
     private User getCurrentUser(OAuth2User principal) {
         if (principal == null) {
             return null;
         }
-        String providerId = principal.getAttribute("sub"); // Or "name" depending on provider and CustomOAuth2UserService
-        return userService.findByProviderId(providerId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with provider ID: " + providerId));
+        return currentUserService.resolve(principal);
+    }
+
+    private boolean isPageRequest(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    private ResponseEntity<List<PortfolioEntryView>> pageResponse(EntryPage page, User user) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        logger.info("Successfully retrieved page of {} entries for user: {}", page.getEntries().size(), user.getEmail());
+        return ResponseEntity.ok().headers(headers).body(page.getEntries());
     }    @PostMapping("/entries") // Correct mapping for adding entries
     public ResponseEntity<PortfolioEntry> addEntry(@RequestBody PortfolioEntry entry, @AuthenticationPrincipal OAuth2User principal) {
         logger.info("Received request to add new portfolio entry");
@@ -61,7 +126,25 @@ public class PortfolioController {
             logger.error("Error adding portfolio entry: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-    }    @PutMapping("/entries/{id}")
+    }
+
+    @PostMapping("/entries/batch")
+    public ResponseEntity<List<EntryBatchResult>> applyEntryBatch(@RequestBody List<EntryBatchOperation> operations, @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        logger.info("Received batch of {} entry operations for user: {}", operations.size(), currentUser.getEmail());
+        try {
+            List<EntryBatchResult> results = portfolioService.applyBatch(operations, currentUser);
+            if (results.stream().anyMatch(result -> !result.isSuccess())) {
+                return ResponseEntity.unprocessableEntity().body(results);
+            }
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected entry batch for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/entries/{id}")
     public ResponseEntity<PortfolioEntry> updateEntry(@PathVariable UUID id, @RequestBody PortfolioEntry entry, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         logger.info("Received request to update portfolio entry with ID: {}", id);
         try {
@@ -96,30 +179,40 @@ public class PortfolioController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }    @GetMapping({"", "/"}) // Handle both with and without trailing slash
-    public ResponseEntity<List<PortfolioEntry>> getAllEntries(@RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+    public ResponseEntity<List<PortfolioEntryView>> getAllEntries(@RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get all entries for user: {}" + (accountId != null ? " for account " + accountId : ""), currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
-            if (accountId != null) {
-                entries = portfolioService.getEntriesByAccountIdAndUser(accountId, currentUser);
-            } else {
-                entries = portfolioService.getAllEntriesByUser(currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, accountId, null, cursor, limit), currentUser);
             }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, accountId, null);
             logger.info("Successfully retrieved {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving portfolio entries for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }    @GetMapping({"/combined", "/combined/"}) // Handle both with and without trailing slash
-    public ResponseEntity<List<PortfolioEntry>> getCombinedPortfolio(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<List<PortfolioEntryView>> getCombinedPortfolio(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor, @AuthenticationPrincipal OAuth2User principal) {
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get combined portfolio for user: {}", currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries = portfolioService.getCombinedEntriesByUser(currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, null, null, cursor, limit), currentUser);
+            }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, null, null);
             logger.info("Successfully retrieved combined portfolio with {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving combined portfolio for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -127,13 +220,19 @@ public class PortfolioController {
     }
 
     @GetMapping("/combined/by-currency")
-    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByCurrency(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByCurrency(@RequestParam(required = false) String baseCurrency,
+            @AuthenticationPrincipal OAuth2User principal) {
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get portfolio grouped by currency for user: {}", currentUser.getEmail());
         try {
-            Map<String, BigDecimal> data = portfolioService.getCombinedEntriesByCurrencyAndUser(currentUser);
+            Map<String, BigDecimal> data = baseCurrency != null
+                ? valuationService.getTotals(currentUser, AggregateDimension.CURRENCY, baseCurrency)
+                : portfolioService.getCombinedEntriesByCurrencyAndUser(currentUser);
             logger.info("Successfully retrieved portfolio data for {} currencies for user: {}", data.size(), currentUser.getEmail());
             return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot value portfolio for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving portfolio by currency for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -141,13 +240,19 @@ public class PortfolioController {
     }
 
     @GetMapping("/combined/by-country")
-    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByCountry(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByCountry(@RequestParam(required = false) String baseCurrency,
+            @AuthenticationPrincipal OAuth2User principal) {
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get portfolio grouped by country for user: {}", currentUser.getEmail());
         try {
-            Map<String, BigDecimal> data = portfolioService.getCombinedEntriesByCountryAndUser(currentUser);
+            Map<String, BigDecimal> data = baseCurrency != null
+                ? valuationService.getTotals(currentUser, AggregateDimension.COUNTRY, baseCurrency)
+                : portfolioService.getCombinedEntriesByCountryAndUser(currentUser);
             logger.info("Successfully retrieved portfolio data for {} countries for user: {}", data.size(), currentUser.getEmail());
             return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot value portfolio for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving portfolio by country for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -155,13 +260,19 @@ public class PortfolioController {
     }
 
     @GetMapping("/combined/by-source")
-    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioBySource(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioBySource(@RequestParam(required = false) String baseCurrency,
+            @AuthenticationPrincipal OAuth2User principal) {
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get portfolio grouped by source for user: {}", currentUser.getEmail());
         try {
-            Map<String, BigDecimal> data = portfolioService.getCombinedEntriesBySourceAndUser(currentUser);
+            Map<String, BigDecimal> data = baseCurrency != null
+                ? valuationService.getTotals(currentUser, AggregateDimension.SOURCE, baseCurrency)
+                : portfolioService.getCombinedEntriesBySourceAndUser(currentUser);
             logger.info("Successfully retrieved portfolio data for {} sources for user: {}", data.size(), currentUser.getEmail());
             return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot value portfolio for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving portfolio by source for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -169,34 +280,111 @@ public class PortfolioController {
     }
 
     @GetMapping("/combined/by-type")
-    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByType(@AuthenticationPrincipal OAuth2User principal) {
+    public ResponseEntity<Map<String, BigDecimal>> getCombinedPortfolioByType(@RequestParam(required = false) String baseCurrency,
+            @AuthenticationPrincipal OAuth2User principal) {
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get portfolio grouped by type for user: {}", currentUser.getEmail());
         try {
-            Map<String, BigDecimal> data = portfolioService.getCombinedEntriesByTypeAndUser(currentUser);
+            Map<String, BigDecimal> data = baseCurrency != null
+                ? valuationService.getTotals(currentUser, AggregateDimension.TYPE, baseCurrency)
+                : portfolioService.getCombinedEntriesByTypeAndUser(currentUser);
             logger.info("Successfully retrieved portfolio data for {} types for user: {}", data.size(), currentUser.getEmail());
             return ResponseEntity.ok(data);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot value portfolio for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving portfolio by type for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping({"/dashboard", "/dashboard/"}) // Handle both with and without trailing slash
+    public ResponseEntity<PortfolioDashboardDto> getDashboard(@RequestParam(required = false) String baseCurrency,
+            @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        logger.info("Received request to get portfolio dashboard for user: {}", currentUser.getEmail());
+        try {
+            PortfolioDashboardDto dashboard = baseCurrency != null
+                ? valuationService.getDashboard(currentUser, baseCurrency)
+                : portfolioService.getDashboardByUser(currentUser);
+            logger.info("Successfully retrieved portfolio dashboard for user: {}", currentUser.getEmail());
+            return ResponseEntity.ok(dashboard);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cannot value portfolio for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error retrieving portfolio dashboard for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<List<HistoryPointDto>> getHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") HistoryGranularity granularity,
+            @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        logger.info("Received request to get {} portfolio history from {} to {} for user: {}", granularity, start, end, currentUser.getEmail());
+        try {
+            List<HistoryPointDto> points = snapshotService.getHistory(currentUser, start, end, granularity);
+            logger.info("Successfully retrieved {} history points for user: {}", points.size(), currentUser.getEmail());
+            return ResponseEntity.ok(points);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid history request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error retrieving portfolio history for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/contributions")
+    public ResponseEntity<List<ContributionDto>> getContributions(
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        logger.info("Received request to get {} contributions from {} to {} for user: {}", bucket, start, end, currentUser.getEmail());
+        try {
+            List<ContributionDto> contributions = portfolioService.getContributionsByUser(currentUser, ContributionBucket.fromString(bucket), start, end);
+            logger.info("Successfully retrieved {} contribution periods for user: {}", contributions.size(), currentUser.getEmail());
+            return ResponseEntity.ok(contributions);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid contributions request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error retrieving contributions for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/currency/{currency}")
-    public ResponseEntity<List<PortfolioEntry>> getEntriesByCurrency(
+    public ResponseEntity<List<PortfolioEntryView>> getEntriesByCurrency(
             @PathVariable String currency,
-            @RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get entries by currency: {} for user: {}", currency, currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
-            if (accountId != null) {
-                entries = portfolioService.getEntriesByCurrencyAndAccountIdAndUser(currency, accountId, currentUser);
-            } else {
-                entries = portfolioService.getEntriesByCurrencyAndUser(currency, currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, accountId,
+                    PortfolioEntrySpecifications.hasCurrency(currency), cursor, limit), currentUser);
             }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, accountId,
+                PortfolioEntrySpecifications.hasCurrency(currency));
             logger.info("Successfully retrieved {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving entries by currency for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -204,20 +392,25 @@ public class PortfolioController {
     }
 
     @GetMapping("/country/{country}")
-    public ResponseEntity<List<PortfolioEntry>> getEntriesByCountry(
+    public ResponseEntity<List<PortfolioEntryView>> getEntriesByCountry(
             @PathVariable String country,
-            @RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get entries by country: {} for user: {}", country, currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
-            if (accountId != null) {
-                entries = portfolioService.getEntriesByCountryAndAccountIdAndUser(country, accountId, currentUser);
-            } else {
-                entries = portfolioService.getEntriesByCountryAndUser(country, currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, accountId,
+                    PortfolioEntrySpecifications.hasCountry(country), cursor, limit), currentUser);
             }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, accountId,
+                PortfolioEntrySpecifications.hasCountry(country));
             logger.info("Successfully retrieved {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving entries by country for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -225,20 +418,25 @@ public class PortfolioController {
     }
 
     @GetMapping("/source/{source}")
-    public ResponseEntity<List<PortfolioEntry>> getEntriesBySource(
+    public ResponseEntity<List<PortfolioEntryView>> getEntriesBySource(
             @PathVariable String source,
-            @RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get entries by source: {} for user: {}", source, currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
-            if (accountId != null) {
-                entries = portfolioService.getEntriesBySourceAndAccountIdAndUser(source, accountId, currentUser);
-            } else {
-                entries = portfolioService.getEntriesBySourceAndUser(source, currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, accountId,
+                    PortfolioEntrySpecifications.hasSource(source), cursor, limit), currentUser);
             }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, accountId,
+                PortfolioEntrySpecifications.hasSource(source));
             logger.info("Successfully retrieved {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving entries by source for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -246,65 +444,189 @@ public class PortfolioController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<PortfolioEntry>> getEntriesByType(
+    public ResponseEntity<List<PortfolioEntryView>> getEntriesByType(
             @PathVariable EntryType type,
-            @RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+            @RequestParam(required = false) UUID accountId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to get entries by type: {} for user: {}", type, currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
-            if (accountId != null) {
-                entries = portfolioService.getEntriesByTypeAndAccountIdAndUser(type, accountId, currentUser);
-            } else {
-                entries = portfolioService.getEntriesByTypeAndUser(type, currentUser);
+            if (isPageRequest(limit, cursor)) {
+                return pageResponse(portfolioService.getEntryPageByUser(currentUser, accountId,
+                    PortfolioEntrySpecifications.hasType(type), cursor, limit), currentUser);
             }
+            List<PortfolioEntryView> entries = portfolioService.getEntryViewsByUser(currentUser, accountId,
+                PortfolioEntrySpecifications.hasType(type));
             logger.info("Successfully retrieved {} entries for user: {}", entries.size(), currentUser.getEmail());
             return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid paging request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving entries by type for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<PortfolioEntryView>> searchEntries(EntrySearchCriteria criteria,
+            @RequestParam(required = false) List<String> sort,
+            @RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        logger.info("Received request to search entries for user: {}", currentUser.getEmail());
+        try {
+            Slice<PortfolioEntryView> results = portfolioService.searchEntryViews(currentUser, criteria, sort, page, size);
+            HttpHeaders headers = new HttpHeaders();
+            if (results.hasNext()) {
+                headers.add(NEXT_PAGE_HEADER, String.valueOf(results.getNumber() + 1));
+            }
+            logger.info("Successfully retrieved {} matching entries for user: {}", results.getNumberOfElements(), currentUser.getEmail());
+            return ResponseEntity.ok().headers(headers).body(results.getContent());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search request for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error searching entries for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/export/xlsx")
-    public ResponseEntity<byte[]> exportToXlsx(@RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+    public ResponseEntity<StreamingResponseBody> exportToXlsx(@RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to export entries to XLSX for user: {}" + (accountId != null ? " for account " + accountId : ""), currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
             if (accountId != null) {
-                entries = portfolioService.getEntriesByAccountIdAndUser(accountId, currentUser);
-            } else {
-                entries = portfolioService.getAllEntriesByUser(currentUser);
+                // Check access before the response is committed; failures after the first byte can't change the status
+                accountService.verifyAccountOwnership(accountId, currentUser);
             }
-            ByteArrayInputStream bis = exportService.exportEntriesToXlsx(entries);
+            // The body is written on an async thread, which must read from the primary if this request is pinned
+            boolean pinnedToPrimary = ReplicaStickiness.isPinnedToPrimary();
+            StreamingResponseBody body = out -> {
+                ReplicaStickiness.pinToPrimaryIf(pinnedToPrimary);
+                try {
+                    exportService.writeEntriesToXlsx(currentUser, accountId, out);
+                    logger.info("Finished streaming XLSX export for user: {}", currentUser.getEmail());
+                } finally {
+                    ReplicaStickiness.unpin();
+                }
+            };
             HttpHeaders headers = new HttpHeaders();
             headers.add("Content-Disposition", "attachment; filename=portfolio_entries.xlsx");
-            return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_OCTET_STREAM).body(bis.readAllBytes());
-        } catch (IOException e) {
-            logger.error("Error exporting entries to XLSX for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_OCTET_STREAM).body(body);
+        } catch (EntityNotFoundException e) {
+            logger.warn("Account {} not found for XLSX export by user {}", accountId, currentUser.getEmail());
+            return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportToCsv(@RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
+    public ResponseEntity<StreamingResponseBody> exportToCsv(@RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) { // Changed Long to UUID
         User currentUser = getCurrentUser(principal);
         logger.info("Received request to export entries to CSV for user: {}" + (accountId != null ? " for account " + accountId : ""), currentUser.getEmail());
         try {
-            List<PortfolioEntry> entries;
             if (accountId != null) {
-                entries = portfolioService.getEntriesByAccountIdAndUser(accountId, currentUser);
-            } else {
-                entries = portfolioService.getAllEntriesByUser(currentUser);
+                // Check access before the response is committed; failures after the first byte can't change the status
+                accountService.verifyAccountOwnership(accountId, currentUser);
             }
-            ByteArrayInputStream bis = exportService.exportEntriesToCsv(entries);
+            // The body is written on an async thread, which must read from the primary if this request is pinned
+            boolean pinnedToPrimary = ReplicaStickiness.isPinnedToPrimary();
+            StreamingResponseBody body = out -> {
+                ReplicaStickiness.pinToPrimaryIf(pinnedToPrimary);
+                try {
+                    exportService.writeEntriesToCsv(currentUser, accountId, out);
+                    logger.info("Finished streaming CSV export for user: {}", currentUser.getEmail());
+                } finally {
+                    ReplicaStickiness.unpin();
+                }
+            };
             HttpHeaders headers = new HttpHeaders();
             headers.add("Content-Disposition", "attachment; filename=portfolio_entries.csv");
-            return ResponseEntity.ok().headers(headers).contentType(MediaType.TEXT_PLAIN).body(bis.readAllBytes());
-        } catch (IOException e) {
-            logger.error("Error exporting entries to CSV for user {}: {}", currentUser.getEmail(), e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return ResponseEntity.ok().headers(headers).contentType(MediaType.TEXT_PLAIN).body(body);
+        } catch (EntityNotFoundException e) {
+            logger.warn("Account {} not found for CSV export by user {}", accountId, currentUser.getEmail());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/import/csv")
+    public ResponseEntity<?> importFromCsv(@RequestParam("file") MultipartFile file, @AuthenticationPrincipal OAuth2User principal) throws IOException {
+        User currentUser = getCurrentUser(principal);
+        logger.info("Received CSV import of {} bytes for user: {}", file.getSize(), currentUser.getEmail());
+        try {
+            return ResponseEntity.ok(importService.importCsv(currentUser, file.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected CSV import for user {}: {}", currentUser.getEmail(), e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJob> createExportJob(@RequestParam String format, @RequestParam(required = false) UUID accountId, @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        logger.info("Received request to queue {} export for user: {}" + (accountId != null ? " for account " + accountId : ""), format, currentUser.getEmail());
+        try {
+            ExportFormat exportFormat = ExportFormat.valueOf(format.toUpperCase());
+            if (accountId != null) {
+                accountService.verifyAccountOwnership(accountId, currentUser);
+            }
+            ExportJob job = exportJobService.submit(currentUser, accountId, exportFormat);
+            return ResponseEntity.accepted().location(URI.create("/api/portfolio/exports/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unsupported export format {} requested by user {}", format, currentUser.getEmail());
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            logger.warn("Account {} not found for export by user {}", accountId, currentUser.getEmail());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<ExportJob> getExportJob(@PathVariable UUID id, @AuthenticationPrincipal OAuth2User principal) {
+        User currentUser = getCurrentUser(principal);
+        try {
+            return ResponseEntity.ok(exportJobService.getJob(id, currentUser));
+        } catch (EntityNotFoundException e) {
+            logger.warn("Export job {} not found for user {}", id, currentUser.getEmail());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/exports/{id}/file")
+    public void downloadExport(@PathVariable UUID id, @AuthenticationPrincipal OAuth2User principal, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        User currentUser = getCurrentUser(principal);
+        ExportJob job;
+        try {
+            job = exportJobService.openDownload(id, currentUser);
+        } catch (EntityNotFoundException e) {
+            logger.warn("Export job {} not found for user {}", id, currentUser.getEmail());
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try {
+            if (job.getStatus() != ExportJobStatus.COMPLETED || !Files.exists(job.getFilePath())) {
+                response.sendError(HttpServletResponse.SC_CONFLICT, "Export is " + job.getStatus().name().toLowerCase());
+                return;
+            }
+
+            response.setContentType(job.getFormat().getContentType());
+            response.setContentLengthLong(job.getFileSize());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=portfolio_entries." + job.getFormat().getFileExtension());
+            if (Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))) {
+                // Let Tomcat hand the file to the kernel once the request returns instead of copying it through the heap
+                request.setAttribute(TOMCAT_SENDFILE_FILENAME, job.getFilePath().toAbsolutePath().toString());
+                request.setAttribute(TOMCAT_SENDFILE_START, 0L);
+                request.setAttribute(TOMCAT_SENDFILE_END, job.getFileSize());
+            } else {
+                Files.copy(job.getFilePath(), response.getOutputStream());
+            }
+            logger.info("Serving export job {} to user {}", id, currentUser.getEmail());
+        } finally {
+            exportJobService.closeDownload(job);
         }
     }
 
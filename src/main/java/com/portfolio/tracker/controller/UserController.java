@@ -2,7 +2,7 @@ package com.portfolio.tracker.controller;
 
 import com.portfolio.tracker.dto.UserDto;
 import com.portfolio.tracker.model.User;
-import com.portfolio.tracker.service.UserService;
+import com.portfolio.tracker.service.CurrentUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,25 +28,15 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
-    private UserService userService;    @GetMapping("/me")
+    private CurrentUserService currentUserService;    @GetMapping("/me")
     public ResponseEntity<?> getCurrentUserDetails(@AuthenticationPrincipal OAuth2User oAuth2User) {
         if (oAuth2User == null) {
             logger.info("No authenticated user found in session.");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No authenticated user"); 
         }
 
-        String email = oAuth2User.getAttribute("email");
-        if (email == null) {
-            logger.warn("Email attribute not found in OAuth2User principal for user: {}", oAuth2User.getName());
-            return ResponseEntity.badRequest().body("User email not found in authentication token");
-        }
-
         try {
-            User user = userService.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("Authenticated user with email {} not found in the database.", email);
-                    return new EntityNotFoundException("User details not found in database for email: " + email);
-                });
+            User user = currentUserService.resolve(oAuth2User);
 
             UserDto userDto = new UserDto(user.getId().toString(), user.getName(), user.getEmail(), user.getProviderId()); 
             logger.info("Returning details for user: {}", userDto.getEmail());
@@ -56,7 +46,7 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } 
         catch (Exception e) {
-            logger.error("Error retrieving user details for {}: {}", email, e.getMessage(), e);
+            logger.error("Error retrieving user details for {}: {}", oAuth2User.getName(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error retrieving user details.");
         }
     }
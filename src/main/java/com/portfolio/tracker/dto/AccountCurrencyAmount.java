@@ -0,0 +1,17 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Projection for the account listing query: entry count and total per account and currency.
+ * Accounts without entries come back as a single row with a null currency and zero count.
+ */
+public interface AccountCurrencyAmount {
+    UUID getAccountId();
+    String getAccountName();
+    String getRelationship();
+    String getCurrency();
+    long getEntryCount();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,13 @@
+package com.portfolio.tracker.dto;
+
+import java.util.UUID;
+
+/**
+ * Projection for aggregate queries that sum entry amounts per account and
+ * (type, currency, country, source) combination, with the number of entries summed.
+ */
+public interface AccountEntryGroupAmount extends EntryGroupAmount {
+    UUID getAccountId();
+    String getAccountName();
+    long getEntryCount();
+}
@@ -0,0 +1,76 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An account as shown on the account list, with its entry count and totals.
+ */
+public class AccountSummaryDto {
+    private UUID id;
+    private String name;
+    private String relationship;
+    private long entryCount;
+    private BigDecimal total = BigDecimal.ZERO;
+    private Map<String, BigDecimal> totalsByCurrency = new LinkedHashMap<>();
+
+    public AccountSummaryDto() {
+    }
+
+    public AccountSummaryDto(UUID id, String name, String relationship) {
+        this.id = id;
+        this.name = name;
+        this.relationship = relationship;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRelationship() {
+        return relationship;
+    }
+
+    public void setRelationship(String relationship) {
+        this.relationship = relationship;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Map<String, BigDecimal> getTotalsByCurrency() {
+        return totalsByCurrency;
+    }
+
+    public void setTotalsByCurrency(Map<String, BigDecimal> totalsByCurrency) {
+        this.totalsByCurrency = totalsByCurrency;
+    }
+}
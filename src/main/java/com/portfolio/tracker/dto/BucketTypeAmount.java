@@ -0,0 +1,17 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projection for aggregate queries that sum entry amounts per time bucket (the bucket's start) and type,
+ * with the number of entries summed.
+ */
+public interface BucketTypeAmount {
+    LocalDateTime getBucket();
+    EntryType getType();
+    BigDecimal getTotal();
+    long getEntryCount();
+}
@@ -0,0 +1,44 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sum of the entries added in one period, in total and per entry type.
+ */
+public class ContributionDto {
+    private LocalDate periodStart;
+    private BigDecimal total = BigDecimal.ZERO;
+    private Map<String, BigDecimal> byType = new HashMap<>();
+
+    public ContributionDto(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    // Getters and Setters
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Map<String, BigDecimal> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, BigDecimal> byType) {
+        this.byType = byType;
+    }
+}
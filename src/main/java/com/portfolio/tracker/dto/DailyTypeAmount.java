@@ -0,0 +1,15 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection for aggregate queries that sum entry amounts added per day and type.
+ */
+public interface DailyTypeAmount {
+    LocalDate getDay();
+    EntryType getType();
+    BigDecimal getTotal();
+}
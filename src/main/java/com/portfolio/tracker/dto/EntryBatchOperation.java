@@ -0,0 +1,50 @@
+package com.portfolio.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.portfolio.tracker.model.PortfolioEntry;
+
+import java.util.UUID;
+
+/**
+ * One operation in a POST /api/portfolio/entries/batch request.
+ * CREATE needs {@code entry}; UPDATE needs {@code id} and {@code entry}; DELETE needs {@code id}.
+ */
+public class EntryBatchOperation {
+    public enum Action {
+        CREATE, UPDATE, DELETE;
+
+        @JsonCreator
+        public static Action fromString(String value) {
+            return value != null ? Action.valueOf(value.trim().toUpperCase()) : null;
+        }
+    }
+
+    private Action action;
+    private UUID id;
+    private PortfolioEntry entry;
+
+    // Getters and Setters
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public PortfolioEntry getEntry() {
+        return entry;
+    }
+
+    public void setEntry(PortfolioEntry entry) {
+        this.entry = entry;
+    }
+}
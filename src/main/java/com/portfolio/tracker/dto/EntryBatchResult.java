@@ -0,0 +1,85 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.PortfolioEntry;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one batch operation, at the same index as the operation in the request.
+ */
+public class EntryBatchResult {
+    private int index;
+    private EntryBatchOperation.Action action;
+    private UUID id;
+    private boolean success;
+    private String error;
+    private PortfolioEntry entry;
+
+    public static EntryBatchResult succeeded(int index, EntryBatchOperation.Action action, UUID id, PortfolioEntry entry) {
+        EntryBatchResult result = new EntryBatchResult();
+        result.setIndex(index);
+        result.setAction(action);
+        result.setId(id);
+        result.setSuccess(true);
+        result.setEntry(entry);
+        return result;
+    }
+
+    public static EntryBatchResult failed(int index, EntryBatchOperation.Action action, UUID id, String error) {
+        EntryBatchResult result = new EntryBatchResult();
+        result.setIndex(index);
+        result.setAction(action);
+        result.setId(id);
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public EntryBatchOperation.Action getAction() {
+        return action;
+    }
+
+    public void setAction(EntryBatchOperation.Action action) {
+        this.action = action;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public PortfolioEntry getEntry() {
+        return entry;
+    }
+
+    public void setEntry(PortfolioEntry entry) {
+        this.entry = entry;
+    }
+}
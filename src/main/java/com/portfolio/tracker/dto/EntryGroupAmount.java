@@ -0,0 +1,17 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for aggregate queries that sum entry amounts per
+ * (type, currency, country, source) combination.
+ */
+public interface EntryGroupAmount {
+    EntryType getType();
+    String getCurrency();
+    String getCountry();
+    String getSource();
+    BigDecimal getTotal();
+}
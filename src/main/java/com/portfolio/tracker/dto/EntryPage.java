@@ -0,0 +1,28 @@
+package com.portfolio.tracker.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of entries and the cursor for the next page (null on the last page).
+ */
+public class EntryPage {
+    private final List<PortfolioEntryView> entries;
+    private final String nextCursor;
+
+    public EntryPage(List<PortfolioEntryView> entries, String nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PortfolioEntryView> getEntries() {
+        return entries;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Filters for the entry search endpoint, bound from query parameters. Every field is optional;
+ * list fields match any of their values and the date range is inclusive of both days.
+ */
+public class EntrySearchCriteria {
+    private List<UUID> accountIds;
+    private List<EntryType> types;
+    private List<String> currencies;
+    private List<String> countries;
+    private List<String> sources;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+
+    // Getters and Setters
+    public List<UUID> getAccountIds() {
+        return accountIds;
+    }
+
+    public void setAccountIds(List<UUID> accountIds) {
+        this.accountIds = accountIds;
+    }
+
+    public List<EntryType> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<EntryType> types) {
+        this.types = types;
+    }
+
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+
+    public void setCurrencies(List<String> currencies) {
+        this.currencies = currencies;
+    }
+
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(List<String> countries) {
+        this.countries = countries;
+    }
+
+    public List<String> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<String> sources) {
+        this.sources = sources;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+}
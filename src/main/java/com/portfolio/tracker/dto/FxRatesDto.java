@@ -0,0 +1,45 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The FX rates currently used for valuation: the value of one unit of each currency in the reference currency.
+ */
+public class FxRatesDto {
+    private String referenceCurrency;
+    private LocalDateTime updatedAt;
+    private Map<String, BigDecimal> rates;
+
+    public FxRatesDto(String referenceCurrency, LocalDateTime updatedAt, Map<String, BigDecimal> rates) {
+        this.referenceCurrency = referenceCurrency;
+        this.updatedAt = updatedAt;
+        this.rates = rates;
+    }
+
+    // Getters and Setters
+    public String getReferenceCurrency() {
+        return referenceCurrency;
+    }
+
+    public void setReferenceCurrency(String referenceCurrency) {
+        this.referenceCurrency = referenceCurrency;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, BigDecimal> rates) {
+        this.rates = rates;
+    }
+}
@@ -0,0 +1,12 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for aggregate queries that sum entry amounts per group
+ * (currency, country, source, ...).
+ */
+public interface GroupedAmount {
+    String getGroupKey();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,44 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Portfolio value at the end of one day, in total and per entry type.
+ */
+public class HistoryPointDto {
+    private LocalDate date;
+    private BigDecimal total = BigDecimal.ZERO;
+    private Map<String, BigDecimal> byType = new HashMap<>();
+
+    public HistoryPointDto(LocalDate date) {
+        this.date = date;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Map<String, BigDecimal> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, BigDecimal> byType) {
+        this.byType = byType;
+    }
+}
@@ -0,0 +1,39 @@
+package com.portfolio.tracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: how many rows were inserted and which were rejected.
+ * Only the first few hundred errors are listed; failedCount always has the full count.
+ */
+public class ImportResultDto {
+    private long importedCount;
+    private long failedCount;
+    private List<ImportRowError> errors = new ArrayList<>();
+
+    // Getters and Setters
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public void setImportedCount(long importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+}
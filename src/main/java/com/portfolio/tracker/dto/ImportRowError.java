@@ -0,0 +1,34 @@
+package com.portfolio.tracker.dto;
+
+/**
+ * A CSV row that was skipped during import, with the reason it was rejected.
+ */
+public class ImportRowError {
+    private long line;
+    private String message;
+
+    public ImportRowError() {
+    }
+
+    public ImportRowError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
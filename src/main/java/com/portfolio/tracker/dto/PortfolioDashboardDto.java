@@ -0,0 +1,80 @@
+package com.portfolio.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every breakdown shown on the portfolio dashboard, computed together in one pass.
+ * When the dashboard is expressed in a base currency, currency names it; otherwise amounts
+ * are raw sums across currencies and currency is omitted.
+ */
+public class PortfolioDashboardDto {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String currency;
+    private BigDecimal total = BigDecimal.ZERO;
+    private Map<String, BigDecimal> byType = new HashMap<>();
+    private Map<String, BigDecimal> byCurrency = new HashMap<>();
+    private Map<String, BigDecimal> byCountry = new HashMap<>();
+    private Map<String, BigDecimal> bySource = new HashMap<>();
+    private Map<String, BigDecimal> byAccount = new HashMap<>();
+
+    // Getters and Setters
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Map<String, BigDecimal> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, BigDecimal> byType) {
+        this.byType = byType;
+    }
+
+    public Map<String, BigDecimal> getByCurrency() {
+        return byCurrency;
+    }
+
+    public void setByCurrency(Map<String, BigDecimal> byCurrency) {
+        this.byCurrency = byCurrency;
+    }
+
+    public Map<String, BigDecimal> getByCountry() {
+        return byCountry;
+    }
+
+    public void setByCountry(Map<String, BigDecimal> byCountry) {
+        this.byCountry = byCountry;
+    }
+
+    public Map<String, BigDecimal> getBySource() {
+        return bySource;
+    }
+
+    public void setBySource(Map<String, BigDecimal> bySource) {
+        this.bySource = bySource;
+    }
+
+    public Map<String, BigDecimal> getByAccount() {
+        return byAccount;
+    }
+
+    public void setByAccount(Map<String, BigDecimal> byAccount) {
+        this.byAccount = byAccount;
+    }
+}
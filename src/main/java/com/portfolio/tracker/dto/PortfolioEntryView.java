@@ -0,0 +1,105 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of an entry for listing endpoints, built directly from query results so rows
+ * never enter the persistence context. Serializes to the same JSON shape as {@code PortfolioEntry},
+ * including the nested {@code account} the frontend reads the account name from.
+ */
+public final class PortfolioEntryView {
+    private final UUID id;
+    private final LocalDateTime dateAdded;
+    private final EntryType type;
+    private final String source;
+    private final BigDecimal amount;
+    private final String currency;
+    private final String country;
+    private final String notes;
+    private final AccountRef account;
+
+    public PortfolioEntryView(UUID id, LocalDateTime dateAdded, EntryType type, String source, BigDecimal amount,
+                              String currency, String country, String notes,
+                              UUID accountId, String accountName, String accountRelationship) {
+        this.id = id;
+        this.dateAdded = dateAdded;
+        this.type = type;
+        this.source = source;
+        this.amount = amount;
+        this.currency = currency;
+        this.country = country;
+        this.notes = notes;
+        this.account = new AccountRef(accountId, accountName, accountRelationship);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getAccountId() {
+        return account.getId();
+    }
+
+    public AccountRef getAccount() {
+        return account;
+    }
+
+    public EntryType getType() {
+        return type;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public LocalDateTime getDateAdded() {
+        return dateAdded;
+    }
+
+    /**
+     * The few account fields shown alongside an entry.
+     */
+    public static final class AccountRef {
+        private final UUID id;
+        private final String name;
+        private final String relationship;
+
+        public AccountRef(UUID id, String name, String relationship) {
+            this.id = id;
+            this.name = name;
+            this.relationship = relationship;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRelationship() {
+            return relationship;
+        }
+    }
+}
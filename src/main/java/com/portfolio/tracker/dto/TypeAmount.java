@@ -0,0 +1,13 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.model.EntryType;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for aggregate queries that sum entry amounts per entry type.
+ */
+public interface TypeAmount {
+    EntryType getType();
+    BigDecimal getTotal();
+}
@@ -0,0 +1,11 @@
+package com.portfolio.tracker.model;
+
+/**
+ * Dimensions along which per-user running totals are kept in portfolio_aggregates.
+ */
+public enum AggregateDimension {
+    TYPE,
+    CURRENCY,
+    COUNTRY,
+    SOURCE
+}
@@ -0,0 +1,20 @@
+package com.portfolio.tracker.model;
+
+import java.util.Locale;
+
+/**
+ * Period by which new entries are grouped for contribution analytics. Weeks start on Monday (ISO).
+ */
+public enum ContributionBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public static ContributionBucket fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported bucket: " + value + " (expected day, week or month)");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.portfolio.tracker.model;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String fileExtension;
+    private final String contentType;
+
+    ExportFormat(String fileExtension, String contentType) {
+        this.fileExtension = fileExtension;
+        this.contentType = contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
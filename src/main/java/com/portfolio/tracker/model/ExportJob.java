@@ -0,0 +1,41 @@
+package com.portfolio.tracker.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An export requested through POST /api/portfolio/exports. Jobs are kept in memory by
+ * ExportJobService and their output is written to the local spool directory.
+ */
+@Data
+public class ExportJob {
+    private UUID id;
+
+    @JsonIgnore
+    private UUID userId;
+
+    private UUID accountId;
+    private ExportFormat format;
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private volatile LocalDateTime completedAt;
+    private volatile long fileSize;
+    private volatile String error;
+
+    @JsonIgnore
+    private Path filePath;
+
+    // Downloads currently reading the file; the file isn't deleted while any are in progress
+    @JsonIgnore
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+
+    @JsonIgnore
+    public boolean isActive() {
+        return status == ExportJobStatus.QUEUED || status == ExportJobStatus.RUNNING;
+    }
+}
@@ -0,0 +1,8 @@
+package com.portfolio.tracker.model;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
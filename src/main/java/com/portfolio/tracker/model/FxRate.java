@@ -0,0 +1,30 @@
+package com.portfolio.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Value of one unit of a currency in the configured reference currency.
+ * Read into an in-memory snapshot by FxRateService; never queried per request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fx_rates")
+public class FxRate {
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    @Column(nullable = false, precision = 24, scale = 12)
+    private BigDecimal rate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
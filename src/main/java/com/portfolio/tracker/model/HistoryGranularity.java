@@ -0,0 +1,11 @@
+package com.portfolio.tracker.model;
+
+/**
+ * Spacing of points returned by the portfolio history endpoint. Each point is the value at the
+ * end of its period (or at the end of the requested range, for the last, partial period).
+ */
+public enum HistoryGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,33 @@
+package com.portfolio.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Running sum of entry amounts for one (user, dimension, key) group.
+ * Maintained incrementally by PortfolioAggregateService on every entry write.
+ */
+@Data
+@Entity
+@Table(name = "portfolio_aggregates")
+@IdClass(PortfolioAggregateId.class)
+public class PortfolioAggregate {
+    @Id
+    @Column(name = "user_id", columnDefinition = "UUID")
+    private UUID userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AggregateDimension dimension;
+
+    @Id
+    @Column(name = "group_key")
+    private String groupKey;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+}
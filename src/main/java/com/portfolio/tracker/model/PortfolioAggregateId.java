@@ -0,0 +1,17 @@
+package com.portfolio.tracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAggregateId implements Serializable {
+    private UUID userId;
+    private AggregateDimension dimension;
+    private String groupKey;
+}
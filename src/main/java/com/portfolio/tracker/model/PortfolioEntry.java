@@ -3,6 +3,7 @@ package com.portfolio.tracker.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID; // Added for UUID
@@ -21,8 +22,10 @@ public class PortfolioEntry {
     @JsonIgnore
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: read paths fetch the account explicitly (entity graph or JOIN FETCH) when they need it
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private PortfolioAccount account;
 
     @Transient
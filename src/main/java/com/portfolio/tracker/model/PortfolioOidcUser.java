@@ -0,0 +1,29 @@
+package com.portfolio.tracker.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * OIDC principal that also carries the ID of our {@link User} row, resolved once at login,
+ * so requests can find the user without looking them up by provider ID or email.
+ */
+public class PortfolioOidcUser extends DefaultOidcUser {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID userId;
+
+    public PortfolioOidcUser(Collection<? extends GrantedAuthority> authorities, OidcIdToken idToken, OidcUserInfo userInfo, UUID userId) {
+        super(authorities, idToken, userInfo, IdTokenClaimNames.SUB);
+        this.userId = userId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Value of one entry type in a user's portfolio at the end of one day.
+ * Written by PortfolioSnapshotService; read by the history endpoint.
+ */
+@Data
+@Entity
+@Table(name = "portfolio_snapshots")
+@IdClass(PortfolioSnapshotId.class)
+public class PortfolioSnapshot {
+    @Id
+    @Column(name = "user_id", columnDefinition = "UUID")
+    private UUID userId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EntryType type;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+}
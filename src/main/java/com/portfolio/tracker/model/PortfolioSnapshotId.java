@@ -0,0 +1,18 @@
+package com.portfolio.tracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSnapshotId implements Serializable {
+    private UUID userId;
+    private LocalDate snapshotDate;
+    private EntryType type;
+}
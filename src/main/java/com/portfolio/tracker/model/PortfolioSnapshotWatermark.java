@@ -0,0 +1,26 @@
+package com.portfolio.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Last day for which a user's portfolio_snapshots rows have been written.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "portfolio_snapshot_watermarks")
+public class PortfolioSnapshotWatermark {
+    @Id
+    @Column(name = "user_id", columnDefinition = "UUID")
+    private UUID userId;
+
+    @Column(name = "last_snapshot_date", nullable = false)
+    private LocalDate lastSnapshotDate;
+}
@@ -0,0 +1,7 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.model.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FxRateRepository extends JpaRepository<FxRate, String> {
+}
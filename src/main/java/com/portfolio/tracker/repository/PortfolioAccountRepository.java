@@ -1,9 +1,13 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.AccountCurrencyAmount;
 import com.portfolio.tracker.model.PortfolioAccount;
 import com.portfolio.tracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID; // Added for UUID
@@ -11,4 +15,12 @@ import java.util.UUID; // Added for UUID
 public interface PortfolioAccountRepository extends JpaRepository<PortfolioAccount, UUID> { // Changed Long to UUID
     List<PortfolioAccount> findByUser(User user);
     Optional<PortfolioAccount> findByIdAndUser(UUID id, User user); // Changed Long to UUID
+    List<PortfolioAccount> findByIdInAndUser(Collection<UUID> ids, User user);
+    boolean existsByIdAndUser(UUID id, User user);
+
+    @Query("SELECT a.id AS accountId, a.name AS accountName, a.relationship AS relationship, e.currency AS currency, " +
+           "COUNT(e.id) AS entryCount, COALESCE(SUM(e.amount), 0) AS total " +
+           "FROM PortfolioAccount a LEFT JOIN a.entries e WHERE a.user = :user " +
+           "GROUP BY a.id, a.name, a.relationship, e.currency ORDER BY a.name, a.id")
+    List<AccountCurrencyAmount> summarizeByUser(@Param("user") User user);
 }
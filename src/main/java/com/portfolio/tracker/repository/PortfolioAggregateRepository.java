@@ -0,0 +1,51 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.model.AggregateDimension;
+import com.portfolio.tracker.model.PortfolioAggregate;
+import com.portfolio.tracker.model.PortfolioAggregateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface PortfolioAggregateRepository extends JpaRepository<PortfolioAggregate, PortfolioAggregateId> {
+    List<PortfolioAggregate> findByUserIdAndDimension(UUID userId, AggregateDimension dimension);
+    List<PortfolioAggregate> findByUserId(UUID userId);
+
+    // Adds to the group's total, creating the row if it doesn't exist, in one statement that is safe
+    // against a concurrent write creating the same group (PostgreSQL)
+    @Modifying
+    @Query(value = "INSERT INTO portfolio_aggregates (user_id, dimension, group_key, total) " +
+                   "VALUES (:userId, :dimension, :groupKey, :delta) " +
+                   "ON CONFLICT (user_id, dimension, group_key) DO UPDATE SET total = portfolio_aggregates.total + EXCLUDED.total",
+           nativeQuery = true)
+    void upsertTotal(UUID userId, String dimension, String groupKey, BigDecimal delta);
+
+    // The same with standard MERGE, for databases without ON CONFLICT (H2)
+    @Modifying
+    @Query(value = "MERGE INTO portfolio_aggregates a " +
+                   "USING (VALUES (CAST(:userId AS UUID), CAST(:dimension AS VARCHAR(20)), CAST(:groupKey AS VARCHAR(255)), " +
+                   "CAST(:delta AS DECIMAL(19,2)))) AS d (user_id, dimension, group_key, total) " +
+                   "ON a.user_id = d.user_id AND a.dimension = d.dimension AND a.group_key = d.group_key " +
+                   "WHEN MATCHED THEN UPDATE SET total = a.total + d.total " +
+                   "WHEN NOT MATCHED THEN INSERT (user_id, dimension, group_key, total) VALUES (d.user_id, d.dimension, d.group_key, d.total)",
+           nativeQuery = true)
+    void mergeTotal(UUID userId, String dimension, String groupKey, BigDecimal delta);
+
+    @Modifying
+    @Query(value = "INSERT INTO portfolio_aggregates (user_id, dimension, group_key, total) " +
+                   "VALUES (:userId, :dimension, :groupKey, :total)", nativeQuery = true)
+    void insert(UUID userId, String dimension, String groupKey, BigDecimal total);
+
+    // Entry amounts are always positive, so a group whose total drops to zero has no entries left
+    @Modifying
+    @Query("DELETE FROM PortfolioAggregate a WHERE a.userId = :userId AND a.total <= 0")
+    int deleteEmptyGroups(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioAggregate a WHERE a.userId = :userId")
+    int deleteByUserId(UUID userId);
+}
@@ -0,0 +1,116 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.EntrySearchCriteria;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Reusable predicates over {@link PortfolioEntry} for use with {@link PortfolioRepository#findViews}.
+ */
+public final class PortfolioEntrySpecifications {
+
+    private PortfolioEntrySpecifications() {
+    }
+
+    public static Specification<PortfolioEntry> belongsTo(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<PortfolioEntry> inAccount(UUID accountId) {
+        return (root, query, cb) -> cb.equal(root.get("account").get("id"), accountId);
+    }
+
+    public static Specification<PortfolioEntry> hasCurrency(String currency) {
+        return (root, query, cb) -> cb.equal(root.get("currency"), currency);
+    }
+
+    public static Specification<PortfolioEntry> hasCountry(String country) {
+        return (root, query, cb) -> cb.equal(root.get("country"), country);
+    }
+
+    public static Specification<PortfolioEntry> hasSource(String source) {
+        return (root, query, cb) -> cb.equal(root.get("source"), source);
+    }
+
+    public static Specification<PortfolioEntry> hasType(EntryType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<PortfolioEntry> inAccounts(Collection<UUID> accountIds) {
+        return (root, query, cb) -> root.get("account").get("id").in(accountIds);
+    }
+
+    public static Specification<PortfolioEntry> hasTypeIn(Collection<EntryType> types) {
+        return (root, query, cb) -> root.get("type").in(types);
+    }
+
+    public static Specification<PortfolioEntry> hasCurrencyIn(Collection<String> currencies) {
+        return (root, query, cb) -> root.get("currency").in(currencies);
+    }
+
+    public static Specification<PortfolioEntry> hasCountryIn(Collection<String> countries) {
+        return (root, query, cb) -> root.get("country").in(countries);
+    }
+
+    public static Specification<PortfolioEntry> hasSourceIn(Collection<String> sources) {
+        return (root, query, cb) -> root.get("source").in(sources);
+    }
+
+    public static Specification<PortfolioEntry> addedOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateAdded"), from);
+    }
+
+    public static Specification<PortfolioEntry> addedBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("dateAdded"), to);
+    }
+
+    public static Specification<PortfolioEntry> amountAtLeast(BigDecimal min) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<PortfolioEntry> amountAtMost(BigDecimal max) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    /**
+     * ANDs together a predicate for every filter set on the criteria; empty lists and null bounds are ignored.
+     */
+    public static Specification<PortfolioEntry> matching(EntrySearchCriteria criteria) {
+        Specification<PortfolioEntry> spec = Specification.where(null);
+        if (criteria.getAccountIds() != null && !criteria.getAccountIds().isEmpty()) {
+            spec = spec.and(inAccounts(criteria.getAccountIds()));
+        }
+        if (criteria.getTypes() != null && !criteria.getTypes().isEmpty()) {
+            spec = spec.and(hasTypeIn(criteria.getTypes()));
+        }
+        if (criteria.getCurrencies() != null && !criteria.getCurrencies().isEmpty()) {
+            spec = spec.and(hasCurrencyIn(criteria.getCurrencies()));
+        }
+        if (criteria.getCountries() != null && !criteria.getCountries().isEmpty()) {
+            spec = spec.and(hasCountryIn(criteria.getCountries()));
+        }
+        if (criteria.getSources() != null && !criteria.getSources().isEmpty()) {
+            spec = spec.and(hasSourceIn(criteria.getSources()));
+        }
+        if (criteria.getFrom() != null) {
+            spec = spec.and(addedOnOrAfter(criteria.getFrom().atStartOfDay()));
+        }
+        if (criteria.getTo() != null) {
+            spec = spec.and(addedBefore(criteria.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (criteria.getMinAmount() != null) {
+            spec = spec.and(amountAtLeast(criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            spec = spec.and(amountAtMost(criteria.getMaxAmount()));
+        }
+        return spec;
+    }
+}
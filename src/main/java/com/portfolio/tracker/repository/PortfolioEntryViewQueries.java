@@ -0,0 +1,28 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.PortfolioEntry;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listing queries that select {@link PortfolioEntryView} rows with a constructor expression
+ * instead of loading entities. Implemented in {@link PortfolioEntryViewQueriesImpl}.
+ */
+public interface PortfolioEntryViewQueries {
+
+    /**
+     * Entries matching the specification, ordered by (dateAdded DESC, id), starting after the
+     * given keyset position. A limit of 0 or less returns every match.
+     */
+    List<PortfolioEntryView> findViews(Specification<PortfolioEntry> spec, KeysetScrollPosition position, int limit);
+
+    /**
+     * Entries matching the specification in the given sort order, with id as the final tie-breaker
+     * so offsets are stable, skipping the first {@code offset} rows and returning at most {@code limit}.
+     */
+    List<PortfolioEntryView> findViews(Specification<PortfolioEntry> spec, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,96 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class PortfolioEntryViewQueriesImpl implements PortfolioEntryViewQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PortfolioEntryView> findViews(Specification<PortfolioEntry> spec, KeysetScrollPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PortfolioEntryView> query = cb.createQuery(PortfolioEntryView.class);
+        Root<PortfolioEntry> entry = selectView(query, cb);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate matches = spec.toPredicate(entry, query, cb);
+        if (matches != null) {
+            predicates.add(matches);
+        }
+        Map<String, Object> keys = position.getKeys();
+        if (!keys.isEmpty()) {
+            // Rows after (dateAdded, id) in (dateAdded DESC, id ASC) order. The OR alone can't bound an index
+            // scan, so the redundant dateAdded <= afterDate lets the (user_id, date_added DESC, id) index seek
+            // straight to the cursor instead of reading and discarding every row on the earlier pages
+            Path<LocalDateTime> dateAdded = entry.get("dateAdded");
+            Path<UUID> id = entry.get("id");
+            LocalDateTime afterDate = (LocalDateTime) keys.get("dateAdded");
+            UUID afterId = (UUID) keys.get("id");
+            predicates.add(cb.lessThanOrEqualTo(dateAdded, afterDate));
+            predicates.add(cb.or(
+                cb.lessThan(dateAdded, afterDate),
+                cb.and(cb.equal(dateAdded, afterDate), cb.greaterThan(id, afterId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(entry.get("dateAdded")), cb.asc(entry.get("id")));
+
+        TypedQuery<PortfolioEntryView> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<PortfolioEntryView> findViews(Specification<PortfolioEntry> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PortfolioEntryView> query = cb.createQuery(PortfolioEntryView.class);
+        Root<PortfolioEntry> entry = selectView(query, cb);
+
+        Predicate matches = spec.toPredicate(entry, query, cb);
+        if (matches != null) {
+            query.where(matches);
+        }
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(sort, entry, cb));
+        orders.add(cb.asc(entry.get("id")));
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+            .setFirstResult(Math.toIntExact(offset))
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    private Root<PortfolioEntry> selectView(CriteriaQuery<PortfolioEntryView> query, CriteriaBuilder cb) {
+        Root<PortfolioEntry> entry = query.from(PortfolioEntry.class);
+        Join<PortfolioEntry, PortfolioAccount> account = entry.join("account");
+        query.select(cb.construct(PortfolioEntryView.class,
+            entry.get("id"), entry.get("dateAdded"), entry.get("type"), entry.get("source"), entry.get("amount"),
+            entry.get("currency"), entry.get("country"), entry.get("notes"),
+            account.get("id"), account.get("name"), account.get("relationship")));
+        return entry;
+    }
+}
@@ -1,41 +1,109 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.DailyTypeAmount;
+import com.portfolio.tracker.dto.EntryGroupAmount;
+import com.portfolio.tracker.dto.GroupedAmount;
+import com.portfolio.tracker.dto.TypeAmount;
 import com.portfolio.tracker.model.PortfolioEntry;
 import com.portfolio.tracker.model.EntryType;
 import com.portfolio.tracker.model.User;
 import com.portfolio.tracker.model.PortfolioAccount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID; // Added for UUID
+import java.util.stream.Stream;
 
-public interface PortfolioRepository extends JpaRepository<PortfolioEntry, UUID> { // Changed Long to UUID
+public interface PortfolioRepository extends JpaRepository<PortfolioEntry, UUID>, JpaSpecificationExecutor<PortfolioEntry>, PortfolioEntryViewQueries { // Changed Long to UUID
     List<PortfolioEntry> findAllByOrderByDateAddedDesc();
 
-    // Methods for user-specific data
+    // Methods for user-specific data. PortfolioEntry.account is lazy, so every finder whose results
+    // are returned to clients loads the account in the same select via an entity graph.
+    @EntityGraph(attributePaths = "account")
     Optional<PortfolioEntry> findByIdAndUser(UUID id, User user); // Changed Long to UUID
-    List<PortfolioEntry> findByUserOrderByDateAddedDesc(User user);
-    List<PortfolioEntry> findByAccountAndUserOrderByDateAddedDesc(PortfolioAccount account, User user);
-    List<PortfolioEntry> findByCurrencyAndUser(String currency, User user);
-    List<PortfolioEntry> findByCurrencyAndAccountAndUser(String currency, PortfolioAccount account, User user);
-    List<PortfolioEntry> findByCountryAndUser(String country, User user);
-    List<PortfolioEntry> findByCountryAndAccountAndUser(String country, PortfolioAccount account, User user);
-    List<PortfolioEntry> findBySourceAndUser(String source, User user);
-    List<PortfolioEntry> findBySourceAndAccountAndUser(String source, PortfolioAccount account, User user); // Corrected: PortfolioAccount instead of Long accountId
-    List<PortfolioEntry> findByTypeAndUser(EntryType type, User user);
-    List<PortfolioEntry> findByTypeAndAccountAndUser(EntryType type, PortfolioAccount account, User user);
-
-    // Added missing methods that were causing errors in PortfolioService
-    List<PortfolioEntry> findByUser(User user);
-    List<PortfolioEntry> findByAccountAndUser(PortfolioAccount account, User user);
+    @EntityGraph(attributePaths = "account")
+    List<PortfolioEntry> findByIdInAndUser(Collection<UUID> ids, User user);
 
-    @Query("SELECT e FROM PortfolioEntry e JOIN FETCH e.account WHERE e.user = :user ORDER BY e.dateAdded DESC")
-    List<PortfolioEntry> findAllWithAccountsByUserOrderByDateAddedDesc(User user);
+    // Listings, filtered or not, go through findViews with PortfolioEntrySpecifications
 
     @Query("SELECT e FROM PortfolioEntry e JOIN FETCH e.account ORDER BY e.dateAdded DESC")
     List<PortfolioEntry> findAllWithAccountsOrderByDateAddedDesc();
+
+    // Streaming reads for exports - rows are fetched from the JDBC cursor in batches of 500 as the stream is consumed.
+    // Must be called inside a transaction and the stream closed when done.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM PortfolioEntry e JOIN FETCH e.account WHERE e.user = :user ORDER BY e.dateAdded DESC")
+    Stream<PortfolioEntry> streamAllWithAccountsByUser(User user);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM PortfolioEntry e JOIN FETCH e.account WHERE e.account = :account AND e.user = :user ORDER BY e.dateAdded DESC")
+    Stream<PortfolioEntry> streamAllWithAccountsByAccountAndUser(PortfolioAccount account, User user);
+
+    // Aggregate queries - sums are computed by the database so only one row per group is returned
+    @Query("SELECT e.type AS type, SUM(e.amount) AS total FROM PortfolioEntry e WHERE e.user = :user GROUP BY e.type")
+    List<TypeAmount> sumAmountByTypeForUser(User user);
+
+    @Query("SELECT e.currency AS groupKey, SUM(e.amount) AS total FROM PortfolioEntry e WHERE e.user = :user GROUP BY e.currency")
+    List<GroupedAmount> sumAmountByCurrencyForUser(User user);
+
+    @Query("SELECT e.country AS groupKey, SUM(e.amount) AS total FROM PortfolioEntry e WHERE e.user = :user GROUP BY e.country")
+    List<GroupedAmount> sumAmountByCountryForUser(User user);
+
+    @Query("SELECT e.source AS groupKey, SUM(e.amount) AS total FROM PortfolioEntry e WHERE e.user = :user GROUP BY e.source")
+    List<GroupedAmount> sumAmountBySourceForUser(User user);
+
+    @Query("SELECT e.type AS type, e.currency AS currency, e.country AS country, e.source AS source, SUM(e.amount) AS total " +
+           "FROM PortfolioEntry e WHERE e.account = :account GROUP BY e.type, e.currency, e.country, e.source")
+    List<EntryGroupAmount> sumAmountByGroupForAccount(PortfolioAccount account);
+
+    // Finest-grained grouping; every dashboard breakdown can be rolled up from these rows in one pass
+    @Query("SELECT a.id AS accountId, a.name AS accountName, e.type AS type, e.currency AS currency, e.country AS country, " +
+           "e.source AS source, SUM(e.amount) AS total, COUNT(e) AS entryCount FROM PortfolioEntry e JOIN e.account a " +
+           "WHERE e.user = :user AND a.user = :user GROUP BY a.id, a.name, e.type, e.currency, e.country, e.source")
+    List<AccountEntryGroupAmount> sumAmountByAccountAndGroupForUser(User user);
     
+    // Inputs for daily history snapshots (see PortfolioSnapshotService)
+    @Query("SELECT MIN(e.dateAdded) FROM PortfolioEntry e WHERE e.user = :user")
+    LocalDateTime findEarliestDateAddedByUser(User user);
+
+    @Query("SELECT e.type AS type, SUM(e.amount) AS total FROM PortfolioEntry e WHERE e.user = :user AND e.dateAdded < :before GROUP BY e.type")
+    List<TypeAmount> sumAmountByTypeForUserBefore(User user, LocalDateTime before);
+
+    @Query("SELECT CAST(e.dateAdded AS LocalDate) AS day, e.type AS type, SUM(e.amount) AS total FROM PortfolioEntry e " +
+           "WHERE e.user = :user AND e.dateAdded >= :from AND e.dateAdded < :before " +
+           "GROUP BY CAST(e.dateAdded AS LocalDate), e.type")
+    List<DailyTypeAmount> sumAmountByDayAndTypeForUser(User user, LocalDateTime from, LocalDateTime before);
+
+    // Contributions per period and type. trunc(datetime, unit) is rendered as date_trunc on PostgreSQL
+    // and as the dialect's equivalent elsewhere (e.g. H2); the unit must be a literal, hence one query per bucket.
+    // There is no week query: where a week starts differs between databases (and with H2's locale), so weekly
+    // contributions are folded from the day buckets into ISO weeks by PortfolioService
+    @Query("SELECT trunc(e.dateAdded, day) AS bucket, e.type AS type, SUM(e.amount) AS total, COUNT(e) AS entryCount FROM PortfolioEntry e " +
+           "WHERE e.user = :user AND e.dateAdded >= :from AND e.dateAdded < :before " +
+           "GROUP BY trunc(e.dateAdded, day), e.type ORDER BY trunc(e.dateAdded, day)")
+    List<BucketTypeAmount> sumAmountByDayBucketAndTypeForUser(User user, LocalDateTime from, LocalDateTime before);
+
+    @Query("SELECT trunc(e.dateAdded, month) AS bucket, e.type AS type, SUM(e.amount) AS total, COUNT(e) AS entryCount FROM PortfolioEntry e " +
+           "WHERE e.user = :user AND e.dateAdded >= :from AND e.dateAdded < :before " +
+           "GROUP BY trunc(e.dateAdded, month), e.type ORDER BY trunc(e.dateAdded, month)")
+    List<BucketTypeAmount> sumAmountByMonthBucketAndTypeForUser(User user, LocalDateTime from, LocalDateTime before);
+
     // Admin/Non-user specific methods (consider security implications)
     List<PortfolioEntry> findByAccount_IdOrderByDateAddedDesc(UUID accountId); // Changed Long to UUID
     List<PortfolioEntry> findByCurrency(String currency);
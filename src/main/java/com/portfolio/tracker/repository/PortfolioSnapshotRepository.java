@@ -0,0 +1,20 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.model.PortfolioSnapshot;
+import com.portfolio.tracker.model.PortfolioSnapshotId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshot, PortfolioSnapshotId> {
+    List<PortfolioSnapshot> findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(UUID userId, LocalDate from, LocalDate to);
+
+    // Clears rows left past the watermark by an interrupted run before they are rewritten
+    @Modifying
+    @Query("DELETE FROM PortfolioSnapshot s WHERE s.userId = :userId AND s.snapshotDate >= :from")
+    int deleteFrom(UUID userId, LocalDate from);
+}
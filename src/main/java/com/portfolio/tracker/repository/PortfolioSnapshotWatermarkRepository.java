@@ -0,0 +1,9 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.model.PortfolioSnapshotWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface PortfolioSnapshotWatermarkRepository extends JpaRepository<PortfolioSnapshotWatermark, UUID> {
+}
@@ -1,9 +1,16 @@
 package com.portfolio.tracker.repository;
 
 import com.portfolio.tracker.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID; // Added for UUID
 
@@ -11,4 +18,15 @@ import java.util.UUID; // Added for UUID
 public interface UserRepository extends JpaRepository<User, UUID> { // Changed Long to UUID
     Optional<User> findByEmail(String email);
     Optional<User> findByProviderId(String providerId);
+
+    // Row lock that serializes writes to a user's entries and aggregates (see PortfolioAggregateService)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(UUID id);
+
+    Window<User> findFirst100ByOrderByIdAsc(ScrollPosition position);
+
+    // Chunks in id order by keyset: the first chunk, then the one after the last id of the previous chunk
+    List<User> findByOrderByIdAsc(Limit limit);
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
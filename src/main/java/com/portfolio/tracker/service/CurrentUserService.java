@@ -0,0 +1,45 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.PortfolioOidcUser;
+import com.portfolio.tracker.model.User;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Resolves the {@link User} behind an authenticated principal. Principals created at login by
+ * {@link CustomOidcUserService} carry the user ID, which is served from the user cache; anything
+ * else (e.g. sessions from before that principal existed) falls back to a lookup by provider ID.
+ * Administrators are the users whose email is listed in portfolio.admin.emails.
+ */
+@Service
+public class CurrentUserService {
+    private static final Logger logger = LoggerFactory.getLogger(CurrentUserService.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${portfolio.admin.emails:}")
+    private Set<String> adminEmails;
+
+    public User resolve(OAuth2User principal) {
+        if (principal instanceof PortfolioOidcUser portfolioUser) {
+            return userService.getUserById(portfolioUser.getUserId());
+        }
+        String providerId = principal.getAttribute("sub");
+        logger.debug("Principal has no user ID; looking up user by provider ID {}", providerId);
+        return userService.findByProviderId(providerId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with provider ID: " + providerId));
+    }
+
+    public boolean isAdmin(User user) {
+        return user != null && user.getEmail() != null
+                && adminEmails.stream().anyMatch(email -> email.trim().equalsIgnoreCase(user.getEmail()));
+    }
+}
@@ -1,7 +1,8 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.config.ReplicaStickiness;
+import com.portfolio.tracker.model.PortfolioOidcUser;
 import com.portfolio.tracker.model.User;
-import com.portfolio.tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
@@ -9,48 +10,25 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-
 @Service
 public class CustomOidcUserService extends OidcUserService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Autowired
+    private ReplicaStickiness replicaStickiness;
 
     @Override
     public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
         OidcUser oidcUser = super.loadUser(userRequest);
 
-        // Extract user details from OidcUser
-        String providerId = oidcUser.getSubject(); // Use getSubject() for 'sub' claim
-        String email = oidcUser.getEmail();
-        String name = oidcUser.getFullName();
-        String imageUrl = oidcUser.getPicture();
+        // Create or update our user from the OidcUser; this also primes the user cache
+        User user = userService.processOAuthPostLogin(oidcUser.getEmail(), oidcUser.getFullName(), oidcUser.getSubject(), oidcUser.getPicture());
+        // A new or updated user must not be read back from a lagging replica
+        replicaStickiness.recordWrite(user.getId());
 
-        Optional<User> userOptional = userRepository.findByProviderId(providerId);
-        User user;
-        if (userOptional.isPresent()) {
-            user = userOptional.get();
-            user.setEmail(email); // Update email if changed
-            user.setName(name);   // Update name if changed
-            user.setImageUrl(imageUrl); // Update image if changed
-            user.setLastLogin(LocalDateTime.now());
-        } else {
-            // If user not found by providerId, try by email (in case they signed up differently before)
-            Optional<User> userByEmailOptional = userRepository.findByEmail(email);
-            if (userByEmailOptional.isPresent()) {
-                user = userByEmailOptional.get();
-                user.setProviderId(providerId); // Link account
-                user.setName(name);
-                user.setImageUrl(imageUrl);
-                user.setLastLogin(LocalDateTime.now());
-            } else {
-                user = new User(email, name, providerId, imageUrl);
-                user.setLastLogin(LocalDateTime.now());
-            }
-        }
-        userRepository.save(user);
-        return oidcUser;
+        // Keep the user ID on the principal so requests don't need to look the user up again
+        return new PortfolioOidcUser(oidcUser.getAuthorities(), oidcUser.getIdToken(), oidcUser.getUserInfo(), user.getId());
     }
 }
@@ -0,0 +1,45 @@
+package com.portfolio.tracker.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque cursor for keyset pagination of entries ordered by (dateAdded DESC, id).
+ * Clients receive it in the X-Next-Cursor header and send it back unchanged.
+ */
+public final class EntryCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private EntryCursor() {
+    }
+
+    public static String encode(LocalDateTime dateAdded, UUID id) {
+        String raw = dateAdded + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("dateAdded", LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put("id", UUID.fromString(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.config.ReplicaStickiness;
+import com.portfolio.tracker.model.ExportFormat;
+import com.portfolio.tracker.model.ExportJob;
+import com.portfolio.tracker.model.ExportJobStatus;
+import com.portfolio.tracker.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs exports in the background on a small bounded worker pool, writing files to a local spool
+ * directory, so large exports don't hold a request thread and a pooled connection for their whole run.
+ * Each user may only have a limited number of exports queued or running at once, and finished
+ * files are removed once they pass the retention period and no download of them is in progress.
+ * Jobs and their files live only in this instance's memory and local disk, so polling or downloading
+ * a job on another instance returns 404: running more than one instance needs sticky sessions.
+ */
+@Service
+public class ExportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    @Autowired
+    private ExportService exportService;
+
+    @Value("${portfolio.export.spool-dir:${java.io.tmpdir}/portfolio-exports}")
+    private String spoolDir;
+
+    @Value("${portfolio.export.workers:2}")
+    private int workers;
+
+    @Value("${portfolio.export.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${portfolio.export.max-active-jobs-per-user:2}")
+    private int maxActiveJobsPerUser;
+
+    @Value("${portfolio.export.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+    // Expired jobs no longer served, whose files are deleted on a later purge
+    private final Map<UUID, ExportJob> expiredJobs = new ConcurrentHashMap<>();
+    private Path spoolPath;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+        // The pool stays bounded in virtual-thread mode; it limits concurrent exports, not threads
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("export-worker-", 1).factory()
+            : new CustomizableThreadFactory("export-worker-");
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        logger.info("Export jobs spooling to {} with {} {} workers", spoolPath, workers, virtualThreads ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public synchronized ExportJob submit(User user, UUID accountId, ExportFormat format) {
+        long activeJobs = jobs.values().stream()
+            .filter(job -> job.getUserId().equals(user.getId()) && job.isActive())
+            .count();
+        if (activeJobs >= maxActiveJobsPerUser) {
+            logger.warn("Rejecting export for user {}: {} exports already in progress", user.getEmail(), activeJobs);
+            throw new IllegalStateException("Too many exports in progress; wait for one to finish");
+        }
+
+        ExportJob job = new ExportJob();
+        job.setId(UUID.randomUUID());
+        job.setUserId(user.getId());
+        job.setAccountId(accountId);
+        job.setFormat(format);
+        job.setFilePath(spoolPath.resolve(job.getId() + "." + format.getFileExtension()));
+        jobs.put(job.getId(), job);
+        // Workers read from the primary if the submitting request was pinned to it (read-your-writes)
+        boolean pinnedToPrimary = ReplicaStickiness.isPinnedToPrimary();
+        try {
+            executor.execute(() -> {
+                ReplicaStickiness.pinToPrimaryIf(pinnedToPrimary);
+                try {
+                    run(job, user);
+                } finally {
+                    ReplicaStickiness.unpin();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            logger.warn("Rejecting export for user {}: export queue is full", user.getEmail());
+            throw new IllegalStateException("Export queue is full; try again later");
+        }
+        logger.info("Queued {} export job {} for user {}", format, job.getId(), user.getEmail());
+        return job;
+    }
+
+    public ExportJob getJob(UUID id, User user) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getUserId().equals(user.getId())) {
+            throw new EntityNotFoundException("Export job not found with ID: " + id + " for user " + user.getEmail());
+        }
+        return job;
+    }
+
+    /**
+     * Looks up the job like {@link #getJob} and registers a download of its file, which keeps the file
+     * from being purged until {@link #closeDownload} is called.
+     */
+    public ExportJob openDownload(UUID id, User user) {
+        ExportJob job = getJob(id, user);
+        job.getActiveDownloads().incrementAndGet();
+        return job;
+    }
+
+    public void closeDownload(ExportJob job) {
+        job.getActiveDownloads().decrementAndGet();
+    }
+
+    private void run(ExportJob job, User user) {
+        job.setStatus(ExportJobStatus.RUNNING);
+        logger.info("Running {} export job {} for user {}", job.getFormat(), job.getId(), user.getEmail());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(job.getFilePath()))) {
+            if (job.getFormat() == ExportFormat.XLSX) {
+                exportService.writeEntriesToXlsx(user, job.getAccountId(), out);
+            } else {
+                exportService.writeEntriesToCsv(user, job.getAccountId(), out);
+            }
+        } catch (Exception e) {
+            logger.error("Export job {} for user {} failed: {}", job.getId(), user.getEmail(), e.getMessage(), e);
+            deleteFile(job);
+            job.setError("Export failed");
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(ExportJobStatus.FAILED);
+            return;
+        }
+        try {
+            job.setFileSize(Files.size(job.getFilePath()));
+        } catch (IOException e) {
+            logger.warn("Could not read size of export file {}: {}", job.getFilePath(), e.getMessage());
+        }
+        job.setCompletedAt(LocalDateTime.now());
+        job.setStatus(ExportJobStatus.COMPLETED);
+        logger.info("Completed export job {} for user {} ({} bytes)", job.getId(), user.getEmail(), job.getFileSize());
+    }
+
+    /**
+     * Expired jobs are first removed from the job list, so no new download can start, and their files
+     * are deleted on a later run once no download is reading them. The gap between the two runs also
+     * covers sendfile downloads: the download is closed when the request handler returns, and Tomcat
+     * opens the file right after that; an open file keeps its contents after it is deleted.
+     */
+    @Scheduled(fixedDelayString = "${portfolio.export.cleanup-interval-ms:300000}")
+    public void purgeExpiredJobs() {
+        expiredJobs.values().removeIf(job -> {
+            if (job.getActiveDownloads().get() > 0) {
+                logger.debug("Keeping file of expired export job {} until its downloads finish", job.getId());
+                return false;
+            }
+            deleteFile(job);
+            logger.debug("Purged expired export job {}", job.getId());
+            return true;
+        });
+
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.isActive() || job.getCompletedAt() == null || job.getCompletedAt().isAfter(cutoff)) {
+                return false;
+            }
+            expiredJobs.put(job.getId(), job);
+            return true;
+        });
+    }
+
+    private void deleteFile(ExportJob job) {
+        try {
+            Files.deleteIfExists(job.getFilePath());
+        } catch (IOException e) {
+            logger.warn("Could not delete export file {}: {}", job.getFilePath(), e.getMessage());
+        }
+    }
+}
@@ -1,72 +1,111 @@
 package com.portfolio.tracker.service;
 
 import com.opencsv.CSVWriter;
+import com.portfolio.tracker.config.MetricsConfig;
 import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
-import java.util.List;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class ExportService {
 
-    public ByteArrayInputStream exportEntriesToXlsx(List<PortfolioEntry> entries) throws IOException {
-        String[] columns = {"ID", "Date Added", "Type", "Currency", "Amount", "Country", "Source", "Notes", "Account Name"};
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Portfolio Entries");
+    static final String[] COLUMNS = {"ID", "Date Added", "Type", "Currency", "Amount", "Country", "Source", "Notes", "Account Name"};
 
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
+    // Rows kept in memory by the streaming workbook; older rows are flushed to a temp file
+    private static final int XLSX_ROW_WINDOW = 100;
 
-            int rowIdx = 1;
-            for (PortfolioEntry entry : entries) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(entry.getId().toString());
-                row.createCell(1).setCellValue(entry.getDateAdded() != null ? entry.getDateAdded().toString() : "");
-                row.createCell(2).setCellValue(entry.getType() != null ? entry.getType().toString() : "");
-                row.createCell(3).setCellValue(entry.getCurrency());
-                row.createCell(4).setCellValue(entry.getAmount() != null ? entry.getAmount().doubleValue() : 0);
-                row.createCell(5).setCellValue(entry.getCountry());
-                row.createCell(6).setCellValue(entry.getSource());
-                row.createCell(7).setCellValue(entry.getNotes());
-                row.createCell(8).setCellValue(entry.getAccount() != null ? entry.getAccount().getName() : "N/A");
-            }
+    @Autowired
+    private PortfolioService portfolioService;
+
+    public ExportService() {
+    }
+
+    // For feeding entries from somewhere other than the database (benchmarks, tests)
+    ExportService(PortfolioService portfolioService) {
+        this.portfolioService = portfolioService;
+    }
+
+    /**
+     * Writes the user's entries (optionally for one account) as CSV straight to the given stream,
+     * row by row as they are read from the database, so memory use doesn't depend on export size.
+     * The stream is flushed but not closed.
+     */
+    public void writeEntriesToCsv(User user, UUID accountId, OutputStream out) throws IOException {
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        csvWriter.writeNext(COLUMNS);
+        portfolioService.forEachEntry(user, accountId, entry -> csvWriter.writeNext(toCsvRow(entry)));
+        csvWriter.flush();
+    }
+
+    /**
+     * Writes the user's entries (optionally for one account) as XLSX straight to the given stream.
+     * Uses POI's streaming workbook, which keeps only a fixed window of rows in memory and spills
+     * the rest to a compressed temp file, so heap use doesn't depend on export size.
+     * The stream is flushed but not closed.
+     */
+    public void writeEntriesToXlsx(User user, UUID accountId, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = createEntriesSheet(workbook);
+            int[] rowIdx = {1};
+            portfolioService.forEachEntry(user, accountId, entry -> fillXlsxRow(sheet.createRow(rowIdx[0]++), entry));
             workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
+            out.flush();
+        } finally {
+            workbook.dispose(); // Delete the temp file backing the flushed rows
+            workbook.close();
         }
     }
 
-    public ByteArrayInputStream exportEntriesToCsv(List<PortfolioEntry> entries) throws IOException {
-        StringWriter stringWriter = new StringWriter();
-        try (CSVWriter csvWriter = new CSVWriter(stringWriter)) {
-            String[] header = {"ID", "Date Added", "Type", "Currency", "Amount", "Country", "Source", "Notes", "Account Name"};
-            csvWriter.writeNext(header);
-
-            for (PortfolioEntry entry : entries) {
-                csvWriter.writeNext(new String[]{
-                        entry.getId().toString(),
-                        entry.getDateAdded() != null ? entry.getDateAdded().toString() : "",
-                        entry.getType() != null ? entry.getType().toString() : "",
-                        entry.getCurrency(),
-                        entry.getAmount() != null ? entry.getAmount().toString() : "0",
-                        entry.getCountry(),
-                        entry.getSource(),
-                        entry.getNotes(),
-                        entry.getAccount() != null ? entry.getAccount().getName() : "N/A"
-                });
-            }
-            return new ByteArrayInputStream(stringWriter.toString().getBytes());
+    private Sheet createEntriesSheet(Workbook workbook) {
+        Sheet sheet = workbook.createSheet("Portfolio Entries");
+        Row headerRow = sheet.createRow(0);
+        for (int col = 0; col < COLUMNS.length; col++) {
+            Cell cell = headerRow.createCell(col);
+            cell.setCellValue(COLUMNS[col]);
         }
+        return sheet;
+    }
+
+    private void fillXlsxRow(Row row, PortfolioEntry entry) {
+        row.createCell(0).setCellValue(entry.getId().toString());
+        row.createCell(1).setCellValue(entry.getDateAdded() != null ? entry.getDateAdded().toString() : "");
+        row.createCell(2).setCellValue(entry.getType() != null ? entry.getType().toString() : "");
+        row.createCell(3).setCellValue(entry.getCurrency());
+        row.createCell(4).setCellValue(entry.getAmount() != null ? entry.getAmount().doubleValue() : 0);
+        row.createCell(5).setCellValue(entry.getCountry());
+        row.createCell(6).setCellValue(entry.getSource());
+        row.createCell(7).setCellValue(entry.getNotes());
+        row.createCell(8).setCellValue(entry.getAccount() != null ? entry.getAccount().getName() : "N/A");
+    }
+
+    private String[] toCsvRow(PortfolioEntry entry) {
+        return new String[]{
+                entry.getId().toString(),
+                entry.getDateAdded() != null ? entry.getDateAdded().toString() : "",
+                entry.getType() != null ? entry.getType().toString() : "",
+                entry.getCurrency(),
+                entry.getAmount() != null ? entry.getAmount().toString() : "0",
+                entry.getCountry(),
+                entry.getSource(),
+                entry.getNotes(),
+                entry.getAccount() != null ? entry.getAccount().getName() : "N/A"
+        };
     }
 }
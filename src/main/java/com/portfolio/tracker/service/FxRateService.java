@@ -0,0 +1,102 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.FxRate;
+import com.portfolio.tracker.repository.FxRateRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Owns the FX rates used to express summaries in a base currency. Rates live in fx_rates and are
+ * uploaded as a complete set; readers only ever see the current {@link FxRateSnapshot}, which is
+ * replaced atomically once an upload commits, so conversions never query the database.
+ * The snapshot is also reloaded periodically to pick up uploads made through other instances.
+ */
+@Service
+public class FxRateService {
+    private static final Logger logger = LoggerFactory.getLogger(FxRateService.class);
+
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+
+    @Autowired
+    private FxRateRepository fxRateRepository;
+
+    @Value("${portfolio.fx.reference-currency:USD}")
+    private String referenceCurrency;
+
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${portfolio.fx.reload-interval-ms:300000}", initialDelayString = "${portfolio.fx.reload-interval-ms:300000}")
+    public void reload() {
+        List<FxRate> rows = fxRateRepository.findAll();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rows.forEach(row -> rates.put(row.getCurrency(), row.getRate()));
+        LocalDateTime updatedAt = rows.stream().map(FxRate::getUpdatedAt).max(Comparator.naturalOrder()).orElse(null);
+        snapshot.set(new FxRateSnapshot(referenceCurrency, rates, updatedAt));
+        logger.debug("Loaded {} FX rates against {}", rows.size(), referenceCurrency);
+    }
+
+    public FxRateSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Replaces every stored rate with the given set. Each rate is the value of one unit of the currency
+     * in the reference currency. The new snapshot becomes visible to readers when the transaction commits.
+     *
+     * @throws IllegalArgumentException if a code is not a three-letter uppercase code or a rate is not positive
+     */
+    @Transactional
+    public FxRateSnapshot replaceRates(Map<String, BigDecimal> rates) {
+        rates.forEach((currency, rate) -> {
+            if (currency == null || !CURRENCY_CODE.matcher(currency).matches()) {
+                throw new IllegalArgumentException("Invalid currency code: " + currency);
+            }
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Rate for " + currency + " must be positive");
+            }
+            if (currency.equals(referenceCurrency) && rate.compareTo(BigDecimal.ONE) != 0) {
+                throw new IllegalArgumentException("Rate for the reference currency " + referenceCurrency + " must be 1");
+            }
+        });
+        LocalDateTime now = LocalDateTime.now();
+        fxRateRepository.deleteAllInBatch();
+        fxRateRepository.saveAll(rates.entrySet().stream()
+            .map(entry -> new FxRate(entry.getKey(), entry.getValue(), now))
+            .toList());
+        FxRateSnapshot next = new FxRateSnapshot(referenceCurrency, rates, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot.set(next);
+                }
+            });
+        } else {
+            snapshot.set(next);
+        }
+        logger.info("Replaced FX rates with {} currencies against {}", rates.size(), referenceCurrency);
+        return next;
+    }
+}
@@ -0,0 +1,107 @@
+package com.portfolio.tracker.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of FX rates, each the value of one unit of a currency in the reference currency.
+ * Currencies are numbered once when the snapshot is built, so a {@link Converter} for a base
+ * currency is a plain array of factors and converting an amount is one lookup and one multiply.
+ * A new snapshot is built for every rate upload and swapped in whole by {@link FxRateService}.
+ */
+public final class FxRateSnapshot {
+
+    private static final MathContext PRECISION = MathContext.DECIMAL64;
+
+    private final String referenceCurrency;
+    private final Map<String, Integer> indexByCurrency;
+    private final BigDecimal[] rates;
+    private final LocalDateTime updatedAt;
+
+    public FxRateSnapshot(String referenceCurrency, Map<String, BigDecimal> ratesByCurrency, LocalDateTime updatedAt) {
+        Map<String, BigDecimal> sorted = new TreeMap<>(ratesByCurrency);
+        // The reference currency is always convertible, whether or not it was uploaded
+        sorted.put(referenceCurrency, BigDecimal.ONE);
+        Map<String, Integer> index = new HashMap<>();
+        BigDecimal[] values = new BigDecimal[sorted.size()];
+        int i = 0;
+        for (Map.Entry<String, BigDecimal> entry : sorted.entrySet()) {
+            index.put(entry.getKey(), i);
+            values[i++] = entry.getValue();
+        }
+        this.referenceCurrency = referenceCurrency;
+        this.indexByCurrency = Collections.unmodifiableMap(index);
+        this.rates = values;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getReferenceCurrency() {
+        return referenceCurrency;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean supports(String currency) {
+        return indexByCurrency.containsKey(currency);
+    }
+
+    /**
+     * Rates by currency in currency order, including the reference currency at 1.
+     */
+    public Map<String, BigDecimal> getRates() {
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        new TreeMap<>(indexByCurrency).forEach((currency, i) -> result.put(currency, rates[i]));
+        return result;
+    }
+
+    /**
+     * Converter into the given base currency.
+     *
+     * @throws IllegalArgumentException if there is no rate for the base currency
+     */
+    public Converter to(String baseCurrency) {
+        Integer baseIndex = indexByCurrency.get(baseCurrency);
+        if (baseIndex == null) {
+            throw new IllegalArgumentException("No FX rate for base currency " + baseCurrency);
+        }
+        BigDecimal baseRate = rates[baseIndex];
+        BigDecimal[] factors = new BigDecimal[rates.length];
+        for (int i = 0; i < rates.length; i++) {
+            factors[i] = i == baseIndex ? BigDecimal.ONE : rates[i].divide(baseRate, PRECISION);
+        }
+        return new Converter(baseCurrency, factors);
+    }
+
+    public final class Converter {
+        private final String baseCurrency;
+        private final BigDecimal[] factors;
+
+        private Converter(String baseCurrency, BigDecimal[] factors) {
+            this.baseCurrency = baseCurrency;
+            this.factors = factors;
+        }
+
+        public String getBaseCurrency() {
+            return baseCurrency;
+        }
+
+        /**
+         * @throws IllegalArgumentException if there is no rate for the amount's currency
+         */
+        public BigDecimal convert(BigDecimal amount, String currency) {
+            Integer i = indexByCurrency.get(currency);
+            if (i == null) {
+                throw new IllegalArgumentException("No FX rate for currency " + currency);
+            }
+            return amount.multiply(factors[i], PRECISION);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.config.EvictPortfolioCaches;
+import com.portfolio.tracker.config.MetricsConfig;
+import com.portfolio.tracker.dto.AccountCurrencyAmount;
+import com.portfolio.tracker.dto.AccountSummaryDto;
 import com.portfolio.tracker.model.PortfolioAccount;
 import com.portfolio.tracker.model.User;
 import com.portfolio.tracker.repository.PortfolioAccountRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
-import org.hibernate.Hibernate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID; // Added for UUID
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Transactional
 public class PortfolioAccountService {
     
@@ -23,6 +35,12 @@ public class PortfolioAccountService {
     @Autowired
     private PortfolioAccountRepository accountRepository;
 
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private PortfolioAggregateService aggregateService;
+
     public PortfolioAccount createAccount(PortfolioAccount account, User user) { // Added User parameter
         logger.info("Attempting to create new account: {} for user: {}", account.getName(), user.getEmail());
         try {
@@ -54,22 +72,25 @@ public class PortfolioAccountService {
         logger.debug("Account validation successful");
     }
 
+    /**
+     * The user's accounts with entry count, total and per-currency totals, built from a single
+     * grouped query rather than loading any entries.
+     */
     @Transactional(readOnly = true)
-    public List<PortfolioAccount> getAllAccountsByUser(User user) { // Renamed and added User parameter
-        logger.info("Fetching all accounts for user: {}", user.getEmail());
-        try {
-            List<PortfolioAccount> accounts = accountRepository.findByUser(user);
-            accounts.forEach(account -> {
-                Hibernate.initialize(account.getEntries()); // Keep if entries are needed immediately
-                logger.debug("Initialized entries for account ID: {}, User: {}, Entry count: {}", 
-                    account.getId(), user.getEmail(), account.getEntries().size());
-            });
-            logger.info("Successfully retrieved and initialized {} accounts for user: {}", accounts.size(), user.getEmail());
-            return accounts;
-        } catch (Exception e) {
-            logger.error("Error fetching all accounts for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+    public List<AccountSummaryDto> getAccountSummariesByUser(User user) {
+        logger.info("Fetching account summaries for user: {}", user.getEmail());
+        Map<UUID, AccountSummaryDto> summaries = new LinkedHashMap<>();
+        for (AccountCurrencyAmount row : accountRepository.summarizeByUser(user)) {
+            AccountSummaryDto summary = summaries.computeIfAbsent(row.getAccountId(),
+                id -> new AccountSummaryDto(id, row.getAccountName(), row.getRelationship()));
+            if (row.getCurrency() != null) {
+                summary.setEntryCount(summary.getEntryCount() + row.getEntryCount());
+                summary.setTotal(summary.getTotal().add(row.getTotal()));
+                summary.getTotalsByCurrency().put(row.getCurrency(), row.getTotal());
+            }
         }
+        logger.info("Retrieved {} account summaries for user: {}", summaries.size(), user.getEmail());
+        return new ArrayList<>(summaries.values());
     }
 
     @Transactional(readOnly = true)
@@ -84,9 +105,8 @@ public class PortfolioAccountService {
             Optional<PortfolioAccount> accountOpt = accountRepository.findByIdAndUser(id, user);
             if (accountOpt.isPresent()) {
                 PortfolioAccount account = accountOpt.get();
-                Hibernate.initialize(account.getEntries());
-                logger.info("Successfully retrieved and initialized account - ID: {}, Name: {}, User: {}, Entries: {}", 
-                    account.getId(), account.getName(), user.getEmail(), account.getEntries().size());
+                logger.info("Successfully retrieved account - ID: {}, Name: {}, User: {}", 
+                    account.getId(), account.getName(), user.getEmail());
                 return account;
             } else {
                 logger.warn("Account not found with ID: {} for user: {}", id, user.getEmail());
@@ -98,6 +118,37 @@ public class PortfolioAccountService {
         }
     }
 
+    /**
+     * Ownership check for callers that only need to know the account is the user's:
+     * a single exists query, without loading the account or its entries.
+     */
+    @Transactional(readOnly = true)
+    public void verifyAccountOwnership(UUID id, User user) {
+        if (id == null) {
+            logger.warn("Null ID provided for account ownership check by user: {}", user.getEmail());
+            throw new IllegalArgumentException("Account ID cannot be null");
+        }
+        if (!accountRepository.existsByIdAndUser(id, user)) {
+            logger.warn("Account not found with ID: {} for user: {}", id, user.getEmail());
+            throw new EntityNotFoundException("Account not found with ID: " + id + " for user: " + user.getEmail());
+        }
+    }
+
+    /**
+     * Loads the given accounts in one query, keyed by ID. IDs that don't exist or belong to
+     * another user are simply absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, PortfolioAccount> getAccountsByIdsAndUser(Collection<UUID> ids, User user) {
+        logger.debug("Fetching {} accounts for user: {}", ids.size(), user.getEmail());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return accountRepository.findByIdInAndUser(ids, user).stream()
+            .collect(Collectors.toMap(PortfolioAccount::getId, Function.identity()));
+    }
+
+    @EvictPortfolioCaches
     public PortfolioAccount updateAccount(UUID id, PortfolioAccount accountDetails, User user) { // Changed Long to UUID
         logger.info("Attempting to update account with ID: {} for user: {}", id, user.getEmail());
         try {
@@ -114,7 +165,6 @@ public class PortfolioAccountService {
             existingAccount.setRelationship(accountDetails.getRelationship());
 
             PortfolioAccount updatedAccount = accountRepository.save(existingAccount);
-            Hibernate.initialize(updatedAccount.getEntries()); 
             logger.info("Successfully updated account - ID: {}, Name: {} for user: {}", id, updatedAccount.getName(), user.getEmail());
             return updatedAccount;
         } catch (Exception e) {
@@ -123,9 +173,11 @@ public class PortfolioAccountService {
         }
     }
     
+    @EvictPortfolioCaches
     public void deleteAccount(UUID id, User user) { // Changed Long to UUID
         logger.info("Attempting to delete account with ID: {} by user: {}", id, user.getEmail());
         try {
+            aggregateService.lockForWrite(user);
             PortfolioAccount account = getAccountByIdAndUser(id, user); 
             logger.debug("Found account to delete: {} for user: {}", account.getName(), user.getEmail());
             
@@ -134,7 +186,12 @@ public class PortfolioAccountService {
                     id, account.getEntries().size());
             }
 
+            // Entries are removed with the account, so take their sums out of the user's aggregates
+            PortfolioAggregateService.Delta delta = new PortfolioAggregateService.Delta();
+            portfolioRepository.sumAmountByGroupForAccount(account).forEach(delta::subtract);
+
             accountRepository.delete(account);
+            aggregateService.apply(user, delta);
             logger.info("Successfully deleted account with ID: {} and Name: {} for user: {}", 
                 id, account.getName(), user.getEmail());
         } catch (Exception e) {
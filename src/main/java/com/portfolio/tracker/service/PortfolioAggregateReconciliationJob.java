@@ -0,0 +1,48 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.support.WindowIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds every user's portfolio_aggregates rows from portfolio_entries
+ * to detect and repair drift. Users are read 100 at a time by keyset on their ID, and each one is
+ * reconciled in its own transaction.
+ */
+@Component
+public class PortfolioAggregateReconciliationJob {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioAggregateReconciliationJob.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioAggregateService aggregateService;
+
+    @Scheduled(cron = "${portfolio.aggregates.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        logger.info("Starting portfolio aggregate reconciliation");
+        WindowIterator<User> users = WindowIterator.of(userRepository::findFirst100ByOrderByIdAsc)
+            .startingAt(ScrollPosition.keyset());
+        int checked = 0;
+        int drifted = 0;
+        while (users.hasNext()) {
+            User user = users.next();
+            checked++;
+            try {
+                if (aggregateService.rebuild(user)) {
+                    drifted++;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to reconcile portfolio aggregates for user {}: {}", user.getEmail(), e.getMessage(), e);
+            }
+        }
+        logger.info("Finished portfolio aggregate reconciliation: {} of {} users had drifted", drifted, checked);
+    }
+}
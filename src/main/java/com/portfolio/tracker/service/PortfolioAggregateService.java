@@ -0,0 +1,180 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.EntryGroupAmount;
+import com.portfolio.tracker.dto.GroupedAmount;
+import com.portfolio.tracker.model.AggregateDimension;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAggregate;
+import com.portfolio.tracker.model.PortfolioAggregateId;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioAggregateRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user running totals in portfolio_aggregates.
+ * Entry writes record signed deltas in a {@link Delta} and apply them in the caller's transaction,
+ * so the combined-by-* reads cost O(groups) no matter how many entries a user has.
+ * Every write to a user's entries starts with {@link #lockForWrite(User)}, which serializes it with
+ * other writes and with {@link #rebuild(User)} for the same user.
+ */
+@Service
+@Transactional
+public class PortfolioAggregateService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioAggregateService.class);
+
+    @Autowired
+    private PortfolioAggregateRepository aggregateRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private boolean onConflictUpsert;
+
+    @PostConstruct
+    void detectUpsertSyntax() {
+        // PostgreSQL gets INSERT ... ON CONFLICT; H2 (used in development) only understands MERGE
+        onConflictUpsert = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    /**
+     * Signed amount changes per (dimension, key), accumulated before being written in one pass.
+     */
+    public static class Delta {
+        private final Map<PortfolioAggregateId, BigDecimal> changes = new LinkedHashMap<>();
+        private boolean hasRemovals;
+
+        public Delta add(PortfolioEntry entry) {
+            return record(entry.getType(), entry.getCurrency(), entry.getCountry(), entry.getSource(), entry.getAmount());
+        }
+
+        public Delta subtract(PortfolioEntry entry) {
+            hasRemovals = true;
+            return record(entry.getType(), entry.getCurrency(), entry.getCountry(), entry.getSource(), entry.getAmount().negate());
+        }
+
+        public Delta subtract(EntryGroupAmount group) {
+            hasRemovals = true;
+            return record(group.getType(), group.getCurrency(), group.getCountry(), group.getSource(), group.getTotal().negate());
+        }
+
+        private Delta record(EntryType type, String currency, String country, String source, BigDecimal amount) {
+            merge(AggregateDimension.TYPE, type.name(), amount);
+            merge(AggregateDimension.CURRENCY, currency, amount);
+            merge(AggregateDimension.COUNTRY, country, amount);
+            merge(AggregateDimension.SOURCE, source, amount);
+            return this;
+        }
+
+        private void merge(AggregateDimension dimension, String key, BigDecimal amount) {
+            changes.merge(new PortfolioAggregateId(null, dimension, key), amount, BigDecimal::add);
+        }
+
+        public boolean isEmpty() {
+            return changes.values().stream().allMatch(amount -> amount.signum() == 0);
+        }
+    }
+
+    /**
+     * Locks the user's row until the transaction ends. Call it before reading or writing any of the
+     * user's entries, so the entries a delta is computed from can't change underneath it and a
+     * concurrent {@link #rebuild(User)} can't overwrite the delta's effect.
+     */
+    public void lockForWrite(User user) {
+        userRepository.findByIdForUpdate(user.getId())
+            .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + user.getId()));
+    }
+
+    public void apply(User user, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        logger.debug("Applying {} aggregate deltas for user: {}", delta.changes.size(), user.getEmail());
+        delta.changes.forEach((key, amount) -> {
+            if (amount.signum() == 0) {
+                return;
+            }
+            if (onConflictUpsert) {
+                aggregateRepository.upsertTotal(user.getId(), key.getDimension().name(), key.getGroupKey(), amount);
+            } else {
+                aggregateRepository.mergeTotal(user.getId(), key.getDimension().name(), key.getGroupKey(), amount);
+            }
+        });
+        if (delta.hasRemovals) {
+            aggregateRepository.deleteEmptyGroups(user.getId());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getTotals(User user, AggregateDimension dimension) {
+        logger.debug("Reading {} aggregates for user: {}", dimension, user.getEmail());
+        return aggregateRepository.findByUserIdAndDimension(user.getId(), dimension).stream()
+            .collect(Collectors.toMap(PortfolioAggregate::getGroupKey, PortfolioAggregate::getTotal));
+    }
+
+    /**
+     * Recomputes the user's aggregates from portfolio_entries and replaces the stored rows. Holds the
+     * user's write lock throughout, so no entry write can commit between reading the entries and
+     * rewriting the aggregates.
+     *
+     * @return true if the stored aggregates had drifted from the entries
+     */
+    public boolean rebuild(User user) {
+        logger.debug("Rebuilding portfolio aggregates for user: {}", user.getEmail());
+        lockForWrite(user);
+        Map<PortfolioAggregateId, BigDecimal> expected = new HashMap<>();
+        portfolioRepository.sumAmountByTypeForUser(user).forEach(row ->
+            expected.put(new PortfolioAggregateId(user.getId(), AggregateDimension.TYPE, row.getType().name()), row.getTotal()));
+        putAll(expected, user, AggregateDimension.CURRENCY, portfolioRepository.sumAmountByCurrencyForUser(user));
+        putAll(expected, user, AggregateDimension.COUNTRY, portfolioRepository.sumAmountByCountryForUser(user));
+        putAll(expected, user, AggregateDimension.SOURCE, portfolioRepository.sumAmountBySourceForUser(user));
+
+        Map<PortfolioAggregateId, BigDecimal> stored = aggregateRepository.findByUserId(user.getId()).stream()
+            .collect(Collectors.toMap(
+                aggregate -> new PortfolioAggregateId(aggregate.getUserId(), aggregate.getDimension(), aggregate.getGroupKey()),
+                PortfolioAggregate::getTotal));
+
+        boolean drifted = expected.size() != stored.size() || expected.entrySet().stream()
+            .anyMatch(e -> stored.get(e.getKey()) == null || stored.get(e.getKey()).compareTo(e.getValue()) != 0);
+        if (!drifted) {
+            return false;
+        }
+
+        logger.warn("Portfolio aggregates drifted for user: {} ({} stored groups, {} expected); rebuilding",
+            user.getEmail(), stored.size(), expected.size());
+        aggregateRepository.deleteByUserId(user.getId());
+        expected.forEach((key, total) ->
+            aggregateRepository.insert(user.getId(), key.getDimension().name(), key.getGroupKey(), total));
+        return true;
+    }
+
+    private void putAll(Map<PortfolioAggregateId, BigDecimal> target, User user, AggregateDimension dimension, List<GroupedAmount> rows) {
+        rows.forEach(row -> target.put(new PortfolioAggregateId(user.getId(), dimension, row.getGroupKey()), row.getTotal()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.ContributionDto;
+import com.portfolio.tracker.dto.PortfolioDashboardDto;
+import com.portfolio.tracker.model.ContributionBucket;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Folds the rows of the aggregate queries into the summaries the API returns. The database has already
+ * grouped the entries, so each fold only merges a few rows per group or period. Kept apart from
+ * {@link PortfolioService} so the JMH benchmarks (src/jmh) can run the same code on synthetic rows.
+ */
+@Component
+public class PortfolioFolds {
+
+    public PortfolioDashboardDto toDashboard(List<AccountEntryGroupAmount> rows) {
+        return toDashboard(rows, AccountEntryGroupAmount::getTotal);
+    }
+
+    /**
+     * Dashboard of {@code amount} applied to each group row, e.g. its total converted to a base currency.
+     * The amounts are summed as they are; rounding them is up to the caller.
+     */
+    public PortfolioDashboardDto toDashboard(List<AccountEntryGroupAmount> rows, Function<AccountEntryGroupAmount, BigDecimal> amount) {
+        PortfolioDashboardDto dashboard = new PortfolioDashboardDto();
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountEntryGroupAmount row : rows) {
+            BigDecimal value = amount.apply(row);
+            total = total.add(value);
+            dashboard.getByType().merge(row.getType().toString(), value, BigDecimal::add);
+            dashboard.getByCurrency().merge(row.getCurrency(), value, BigDecimal::add);
+            dashboard.getByCountry().merge(row.getCountry(), value, BigDecimal::add);
+            dashboard.getBySource().merge(row.getSource(), value, BigDecimal::add);
+            dashboard.getByAccount().merge(row.getAccountName(), value, BigDecimal::add);
+        }
+        dashboard.setTotal(total);
+        return dashboard;
+    }
+
+    // Weeks are folded from day rows, starting on the Monday on or before each day whatever the database or locale
+    public List<ContributionDto> toContributions(List<BucketTypeAmount> rows, ContributionBucket bucket) {
+        Map<LocalDate, ContributionDto> periods = new LinkedHashMap<>();
+        for (BucketTypeAmount row : rows) {
+            LocalDate start = row.getBucket().toLocalDate();
+            if (bucket == ContributionBucket.WEEK) {
+                start = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+            ContributionDto period = periods.computeIfAbsent(start, ContributionDto::new);
+            period.getByType().merge(row.getType().name(), row.getTotal(), BigDecimal::add);
+            period.setTotal(period.getTotal().add(row.getTotal()));
+        }
+        return new ArrayList<>(periods.values());
+    }
+}
@@ -0,0 +1,206 @@
+package com.portfolio.tracker.service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.portfolio.tracker.config.EvictPortfolioCaches;
+import com.portfolio.tracker.dto.ImportResultDto;
+import com.portfolio.tracker.dto.ImportRowError;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk-loads entries from a CSV in the layout produced by {@link ExportService}.
+ * The file is read row by row, accounts are resolved by name once per file, and valid rows are
+ * written with batched JDBC inserts instead of one JPA save per entry. Invalid rows are skipped
+ * and reported; the valid ones are committed together with their aggregate totals.
+ */
+@Service
+public class PortfolioImportService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioImportService.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    // Column widths from portfolio_entries; checked per row so one bad value doesn't fail a whole batch
+    private static final int MAX_CURRENCY_LENGTH = 3;
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO portfolio_entries (id, user_id, account_id, type, source, amount, currency, country, notes, date_added) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private PortfolioAggregateService aggregateService;
+
+    @Autowired
+    private PortfolioAccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    @EvictPortfolioCaches
+    public ImportResultDto importCsv(User user, InputStream in) throws IOException {
+        logger.info("Importing entries from CSV for user: {}", user.getEmail());
+        aggregateService.lockForWrite(user);
+        Map<String, PortfolioAccount> accountsByName = new HashMap<>();
+        for (PortfolioAccount account : accountRepository.findByUser(user)) {
+            accountsByName.putIfAbsent(account.getName().trim(), account);
+        }
+
+        ImportResultDto result = new ImportResultDto();
+        PortfolioAggregateService.Delta delta = new PortfolioAggregateService.Delta();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            Map<String, Integer> columns = readHeader(reader.readNext());
+            String[] row;
+            long line = 1;
+            while ((row = reader.readNext()) != null) {
+                line++;
+                if (row.length == 1 && row[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    PortfolioEntry entry = toEntry(row, columns, accountsByName, user);
+                    batch.add(toInsertArgs(entry));
+                    delta.add(entry);
+                } catch (IllegalArgumentException e) {
+                    result.setFailedCount(result.getFailedCount() + 1);
+                    if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                        result.getErrors().add(new ImportRowError(line, e.getMessage()));
+                    }
+                    continue;
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    result.setImportedCount(result.getImportedCount() + flush(batch));
+                }
+            }
+            result.setImportedCount(result.getImportedCount() + flush(batch));
+        } catch (CsvValidationException e) {
+            logger.warn("Malformed CSV uploaded by user {}: {}", user.getEmail(), e.getMessage());
+            throw new IllegalArgumentException("Malformed CSV: " + e.getMessage());
+        }
+
+        aggregateService.apply(user, delta);
+        logger.info("Imported {} entries for user {} ({} rows rejected)", result.getImportedCount(), user.getEmail(), result.getFailedCount());
+        return result;
+    }
+
+    private Map<String, Integer> readHeader(String[] header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            // Spreadsheet tools often prepend a UTF-8 BOM to the first cell
+            columns.put(header[i].replace("\uFEFF", "").trim(), i);
+        }
+        for (String column : ExportService.COLUMNS) {
+            if (!column.equals("ID") && !column.equals("Notes") && !column.equals("Date Added") && !columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+        return columns;
+    }
+
+    private PortfolioEntry toEntry(String[] row, Map<String, Integer> columns, Map<String, PortfolioAccount> accountsByName, User user) {
+        String accountName = value(row, columns, "Account Name");
+        PortfolioAccount account = accountName != null ? accountsByName.get(accountName) : null;
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account: " + accountName);
+        }
+
+        PortfolioEntry entry = new PortfolioEntry();
+        entry.setId(UUID.randomUUID());
+        entry.setUser(user);
+        entry.setAccount(account);
+        String type = value(row, columns, "Type");
+        String amount = value(row, columns, "Amount");
+        String dateAdded = value(row, columns, "Date Added");
+        try {
+            entry.setType(type != null ? EntryType.valueOf(type.toUpperCase()) : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid type: " + type);
+        }
+        try {
+            entry.setAmount(amount != null ? new BigDecimal(amount) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+        try {
+            entry.setDateAdded(dateAdded != null ? LocalDateTime.parse(dateAdded) : LocalDateTime.now());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + dateAdded);
+        }
+        entry.setCurrency(value(row, columns, "Currency"));
+        entry.setCountry(value(row, columns, "Country"));
+        entry.setSource(value(row, columns, "Source"));
+        entry.setNotes(value(row, columns, "Notes"));
+
+        PortfolioService.validateEntry(entry);
+        if (entry.getSource() == null) {
+            throw new IllegalArgumentException("Source cannot be empty");
+        }
+        checkLength("Currency", entry.getCurrency(), MAX_CURRENCY_LENGTH);
+        checkLength("Country", entry.getCountry(), MAX_TEXT_LENGTH);
+        checkLength("Source", entry.getSource(), MAX_TEXT_LENGTH);
+        checkLength("Notes", entry.getNotes(), MAX_TEXT_LENGTH);
+        return entry;
+    }
+
+    private String value(String[] row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.length || row[index].isBlank()) {
+            return null;
+        }
+        return row[index].trim();
+    }
+
+    private void checkLength(String column, String value, int maxLength) {
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    private Object[] toInsertArgs(PortfolioEntry entry) {
+        return new Object[] {
+            entry.getId(), entry.getUser().getId(), entry.getAccount().getId(), entry.getType().name(),
+            entry.getSource(), entry.getAmount(), entry.getCurrency(), entry.getCountry(), entry.getNotes(), entry.getDateAdded()
+        };
+    }
+
+    private int flush(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        int inserted = batch.size();
+        batch.clear();
+        logger.debug("Inserted batch of {} imported entries", inserted);
+        return inserted;
+    }
+}
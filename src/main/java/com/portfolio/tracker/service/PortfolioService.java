@@ -1,28 +1,74 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.config.CacheConfig;
+import com.portfolio.tracker.config.EvictPortfolioCaches;
+import com.portfolio.tracker.config.MetricsConfig;
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.ContributionDto;
+import com.portfolio.tracker.dto.EntryBatchOperation;
+import com.portfolio.tracker.dto.EntryBatchResult;
+import com.portfolio.tracker.dto.EntryPage;
+import com.portfolio.tracker.dto.EntrySearchCriteria;
+import com.portfolio.tracker.dto.PortfolioDashboardDto;
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.AggregateDimension;
+import com.portfolio.tracker.model.ContributionBucket;
 import com.portfolio.tracker.model.PortfolioEntry;
 import com.portfolio.tracker.model.PortfolioAccount;
 import com.portfolio.tracker.model.User;
 import com.portfolio.tracker.repository.PortfolioRepository;
-import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.repository.PortfolioEntrySpecifications;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID; // Added import
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.function.Function;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @Transactional
 public class PortfolioService {
     private static final Logger logger = LoggerFactory.getLogger(PortfolioService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_OPERATIONS = 1000;
+    public static final int MAX_CONTRIBUTION_RANGE_DAYS = 3660;
+    public static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("dateAdded", "amount", "type", "currency", "country", "source");
+    private static final Sort DEFAULT_SEARCH_SORT = Sort.by(Sort.Direction.DESC, "dateAdded");
+    // portfolio_entries.amount is DECIMAL(19,2)
+    private static final int AMOUNT_PRECISION = 19;
+    private static final int AMOUNT_SCALE = 2;
     
     @Autowired
     private PortfolioRepository portfolioRepository;
@@ -30,7 +76,19 @@ public class PortfolioService {
     @Autowired
     private PortfolioAccountService accountService;
 
-    private void validateEntry(PortfolioEntry entry) {
+    @Autowired
+    private PortfolioAggregateService aggregateService;
+
+    @Autowired
+    private PortfolioFolds portfolioFolds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    static void validateEntry(PortfolioEntry entry) {
         logger.debug("Validating entry data for user: {}", entry.getUser() != null ? entry.getUser().getEmail() : "null");
         if (entry.getType() == null) {
             logger.warn("Validation failed: Entry type is null");
@@ -44,6 +102,17 @@ public class PortfolioService {
             logger.warn("Validation failed: Invalid amount");
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
+        // amount is DECIMAL(19,2): extra decimals would be rounded by the database but not in the
+        // aggregate deltas, and too many integer digits would fail the whole statement or batch
+        BigDecimal amount = entry.getAmount().stripTrailingZeros();
+        if (amount.scale() > AMOUNT_SCALE) {
+            logger.warn("Validation failed: Amount has more than {} decimal places", AMOUNT_SCALE);
+            throw new IllegalArgumentException("Amount can have at most " + AMOUNT_SCALE + " decimal places");
+        }
+        if (amount.precision() - amount.scale() > AMOUNT_PRECISION - AMOUNT_SCALE) {
+            logger.warn("Validation failed: Amount is too large");
+            throw new IllegalArgumentException("Amount can have at most " + (AMOUNT_PRECISION - AMOUNT_SCALE) + " digits before the decimal point");
+        }
         if (entry.getCurrency() == null || entry.getCurrency().trim().isEmpty()) {
             logger.warn("Validation failed: Currency is empty");
             throw new IllegalArgumentException("Currency cannot be empty");
@@ -59,9 +128,11 @@ public class PortfolioService {
         logger.debug("Entry validation successful for user: {}", entry.getUser().getEmail());
     }
 
+    @EvictPortfolioCaches
     public PortfolioEntry addEntry(PortfolioEntry entry, User user) {
         logger.info("Adding new portfolio entry for account ID: {} by user: {}", entry.getAccountId(), user.getEmail());
         try {
+            aggregateService.lockForWrite(user);
             entry.setUser(user);
             if (entry.getAccountId() != null) {
                 PortfolioAccount account = accountService.getAccountByIdAndUser(entry.getAccountId(), user);
@@ -76,6 +147,7 @@ public class PortfolioService {
             }
             validateEntry(entry);
             PortfolioEntry savedEntry = portfolioRepository.save(entry);
+            aggregateService.apply(user, new PortfolioAggregateService.Delta().add(savedEntry));
             logger.info("Successfully added entry with ID: {} for user: {}", savedEntry.getId(), user.getEmail());
             return savedEntry;
         } catch (EntityNotFoundException enfe) {
@@ -87,6 +159,7 @@ public class PortfolioService {
         }
     }
 
+    @EvictPortfolioCaches
     public PortfolioEntry updateEntry(PortfolioEntry entryFromRequest, User user) {
         logger.info("Updating portfolio entry with ID: {} by user: {}", entryFromRequest.getId(), user.getEmail());
         if (entryFromRequest.getId() == null) {
@@ -94,23 +167,17 @@ public class PortfolioService {
             throw new IllegalArgumentException("Entry ID cannot be null for an update operation.");
         }
         try {
+            aggregateService.lockForWrite(user);
             PortfolioEntry existingEntry = portfolioRepository.findByIdAndUser(entryFromRequest.getId(), user)
                 .orElseThrow(() -> {
                     logger.warn("Entry not found with ID: {} for user: {}", entryFromRequest.getId(), user.getEmail());
                     return new EntityNotFoundException("Entry not found with ID: " + entryFromRequest.getId() + " for user " + user.getEmail());
                 });
+            PortfolioAggregateService.Delta delta = new PortfolioAggregateService.Delta().subtract(existingEntry);
 
-            existingEntry.setType(entryFromRequest.getType());
-            existingEntry.setSource(entryFromRequest.getSource());
-            existingEntry.setAmount(entryFromRequest.getAmount());
-            existingEntry.setCurrency(entryFromRequest.getCurrency());
-            existingEntry.setCountry(entryFromRequest.getCountry());
-            existingEntry.setNotes(entryFromRequest.getNotes());
+            copyEditableFields(entryFromRequest, existingEntry);
 
-            UUID requestedAccountId = entryFromRequest.getAccountId();
-            if (entryFromRequest.getAccount() != null && entryFromRequest.getAccount().getId() != null) {
-                requestedAccountId = entryFromRequest.getAccount().getId();
-            }
+            UUID requestedAccountId = requestedAccountId(entryFromRequest);
 
             if (requestedAccountId != null &&
                 (existingEntry.getAccount() == null || !requestedAccountId.equals(existingEntry.getAccount().getId()))) {
@@ -127,6 +194,7 @@ public class PortfolioService {
             
             validateEntry(existingEntry);
             PortfolioEntry updatedEntry = portfolioRepository.save(existingEntry);
+            aggregateService.apply(user, delta.add(updatedEntry));
             logger.info("Successfully updated entry with ID: {} for user: {}", updatedEntry.getId(), user.getEmail());
             return updatedEntry;
         } catch (EntityNotFoundException enfe) {
@@ -138,15 +206,155 @@ public class PortfolioService {
         }
     }
 
+    /**
+     * Applies a list of create/update/delete operations in one transaction. The accounts and entries
+     * the batch refers to are each loaded once, in bulk, and every operation is checked before anything
+     * is written. If any operation fails the transaction is rolled back and the results say which ones
+     * failed and why; otherwise the writes go out together (batched through hibernate.jdbc.batch_size)
+     * and the aggregates are updated once for the whole batch.
+     */
+    @EvictPortfolioCaches
+    public List<EntryBatchResult> applyBatch(List<EntryBatchOperation> operations, User user) {
+        logger.info("Applying batch of {} entry operations for user: {}", operations.size(), user.getEmail());
+        if (operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+        aggregateService.lockForWrite(user);
+
+        Set<UUID> accountIds = new HashSet<>();
+        Set<UUID> entryIds = new HashSet<>();
+        for (EntryBatchOperation operation : operations) {
+            if (operation.getEntry() != null && requestedAccountId(operation.getEntry()) != null) {
+                accountIds.add(requestedAccountId(operation.getEntry()));
+            }
+            if (operation.getId() != null) {
+                entryIds.add(operation.getId());
+            }
+        }
+        Map<UUID, PortfolioAccount> accounts = accountService.getAccountsByIdsAndUser(accountIds, user);
+        Map<UUID, PortfolioEntry> entries = entryIds.isEmpty() ? Map.of() : portfolioRepository.findByIdInAndUser(entryIds, user).stream()
+            .collect(Collectors.toMap(PortfolioEntry::getId, Function.identity()));
+
+        List<EntryBatchResult> results = new ArrayList<>(operations.size());
+        List<PortfolioEntry> toCreate = new ArrayList<>();
+        List<PortfolioEntry> toDelete = new ArrayList<>();
+        Set<UUID> deletedIds = new HashSet<>();
+        PortfolioAggregateService.Delta delta = new PortfolioAggregateService.Delta();
+        boolean failed = false;
+
+        for (int i = 0; i < operations.size(); i++) {
+            EntryBatchOperation operation = operations.get(i);
+            try {
+                if (operation.getAction() == null) {
+                    throw new IllegalArgumentException("Operation action is required");
+                }
+                PortfolioEntry request = operation.getEntry();
+                if (operation.getAction() != EntryBatchOperation.Action.DELETE && request == null) {
+                    throw new IllegalArgumentException("Entry is required for " + operation.getAction());
+                }
+                switch (operation.getAction()) {
+                    case CREATE -> {
+                        request.setId(null);
+                        request.setUser(user);
+                        request.setAccount(batchAccount(accounts, requestedAccountId(request)));
+                        validateEntry(request);
+                        toCreate.add(request);
+                        delta.add(request);
+                        results.add(EntryBatchResult.succeeded(i, operation.getAction(), null, request));
+                    }
+                    case UPDATE -> {
+                        PortfolioEntry existing = batchEntry(entries, deletedIds, operation.getId());
+                        delta.subtract(existing);
+                        copyEditableFields(request, existing);
+                        UUID accountId = requestedAccountId(request);
+                        existing.setAccount(accountId != null ? batchAccount(accounts, accountId) : existing.getAccount());
+                        validateEntry(existing);
+                        delta.add(existing);
+                        results.add(EntryBatchResult.succeeded(i, operation.getAction(), existing.getId(), existing));
+                    }
+                    case DELETE -> {
+                        PortfolioEntry existing = batchEntry(entries, deletedIds, operation.getId());
+                        deletedIds.add(existing.getId());
+                        toDelete.add(existing);
+                        delta.subtract(existing);
+                        results.add(EntryBatchResult.succeeded(i, operation.getAction(), existing.getId(), null));
+                    }
+                }
+            } catch (IllegalArgumentException | EntityNotFoundException e) {
+                failed = true;
+                results.add(EntryBatchResult.failed(i, operation.getAction(), operation.getId(), e.getMessage()));
+            }
+        }
+
+        if (failed) {
+            // Updates were applied to managed entities; rolling back keeps them from being flushed
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            logger.warn("Rejected batch of {} entry operations for user {}: some operations failed", operations.size(), user.getEmail());
+            return results;
+        }
+
+        portfolioRepository.saveAll(toCreate);
+        portfolioRepository.deleteAll(toDelete);
+        aggregateService.apply(user, delta);
+        for (EntryBatchResult result : results) {
+            if (result.getAction() == EntryBatchOperation.Action.CREATE) {
+                result.setId(result.getEntry().getId());
+            }
+        }
+        logger.info("Applied batch of {} entry operations for user: {}", operations.size(), user.getEmail());
+        return results;
+    }
+
+    private PortfolioAccount batchAccount(Map<UUID, PortfolioAccount> accounts, UUID accountId) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID or a valid Account object must be provided.");
+        }
+        PortfolioAccount account = accounts.get(accountId);
+        if (account == null) {
+            throw new EntityNotFoundException("Account not found with ID: " + accountId);
+        }
+        return account;
+    }
+
+    private PortfolioEntry batchEntry(Map<UUID, PortfolioEntry> entries, Set<UUID> deletedIds, UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Entry ID is required");
+        }
+        PortfolioEntry entry = entries.get(id);
+        if (entry == null || deletedIds.contains(id)) {
+            throw new EntityNotFoundException("Entry not found with ID: " + id);
+        }
+        return entry;
+    }
+
+    private static UUID requestedAccountId(PortfolioEntry entryFromRequest) {
+        if (entryFromRequest.getAccount() != null && entryFromRequest.getAccount().getId() != null) {
+            return entryFromRequest.getAccount().getId();
+        }
+        return entryFromRequest.getAccountId();
+    }
+
+    private static void copyEditableFields(PortfolioEntry from, PortfolioEntry to) {
+        to.setType(from.getType());
+        to.setSource(from.getSource());
+        to.setAmount(from.getAmount());
+        to.setCurrency(from.getCurrency());
+        to.setCountry(from.getCountry());
+        to.setNotes(from.getNotes());
+    }
+
+    @EvictPortfolioCaches
     public void deleteEntry(UUID id, User user) { // Changed Long to UUID
         logger.info("Deleting portfolio entry with ID: {} by user: {}", id, user.getEmail());
         try {
+            aggregateService.lockForWrite(user);
             PortfolioEntry entry = portfolioRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> {
                     logger.warn("Entry not found with ID: {} for user: {} during delete attempt.", id, user.getEmail());
                     return new EntityNotFoundException("Entry not found with ID: " + id + " for user " + user.getEmail());
                 });
             portfolioRepository.delete(entry);
+            aggregateService.apply(user, new PortfolioAggregateService.Delta().subtract(entry));
             logger.info("Successfully deleted entry with ID: {} for user: {}", id, user.getEmail());
         } catch (EntityNotFoundException enfe) {
             logger.warn("Failed to delete entry for user {}: Entry ID {} not found or not accessible. Details: {}", user.getEmail(), id, enfe.getMessage());
@@ -157,6 +365,7 @@ public class PortfolioService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PortfolioEntry getEntryByIdAndUser(UUID id, User user) { // Changed Long to UUID
         logger.debug("Fetching entry with ID: {} for user: {}", id, user.getEmail());
         try {
@@ -176,222 +385,216 @@ public class PortfolioService {
         }
     }
 
-    public List<PortfolioEntry> getAllEntriesByUser(User user) {
-        logger.debug("Fetching all entries for user: {}", user.getEmail());
-        try {
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            logger.debug("Successfully fetched {} entries for user: {}", entries.size(), user.getEmail());
-            return entries;
-        } catch (Exception e) {
-            logger.error("Failed to fetch all portfolio entries for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+    /**
+     * Streams the user's entries (optionally for one account), newest first, to the given action
+     * without materializing them as a list. Each entry is detached once handled so the
+     * persistence context doesn't grow with the result size.
+     */
+    @Transactional(readOnly = true)
+    public void forEachEntry(User user, UUID accountId, Consumer<PortfolioEntry> action) {
+        logger.debug("Streaming entries for user: {}{}", user.getEmail(), accountId != null ? " for account " + accountId : "");
+        Stream<PortfolioEntry> entries = accountId != null
+            ? portfolioRepository.streamAllWithAccountsByAccountAndUser(accountService.getAccountByIdAndUser(accountId, user), user)
+            : portfolioRepository.streamAllWithAccountsByUser(user);
+        try (entries) {
+            entries.forEach(entry -> {
+                action.accept(entry);
+                entityManager.detach(entry);
+            });
         }
     }
 
-    public List<PortfolioEntry> getEntriesByAccountIdAndUser(UUID accountId, User user) { // Changed Long to UUID
-        logger.debug("Fetching entries for account ID: {} by user: {}", accountId, user.getEmail());
-        // First, verify the account belongs to the user to ensure data privacy and correctness
-        accountService.getAccountByIdAndUser(accountId, user); // This will throw EntityNotFoundException if not found/accessible
-        try {
-            PortfolioAccount account = accountService.getAccountByIdAndUser(accountId, user);
-            List<PortfolioEntry> entries = portfolioRepository.findByAccountAndUser(account, user);
-            logger.debug("Successfully fetched {} entries for account ID: {} by user: {}", entries.size(), accountId, user.getEmail());
-            return entries;
-        } catch (Exception e) {
-            logger.error("Failed to fetch portfolio entries for account ID {} and user {}: {}", accountId, user.getEmail(), e.getMessage(), e);
-            throw e;
-        }
+    /**
+     * Lists the user's entries (optionally for one account and narrowed by extra criteria) as read-only
+     * views, newest first, in one query that never loads entities.
+     */
+    @Transactional(readOnly = true)
+    public List<PortfolioEntryView> getEntryViewsByUser(User user, UUID accountId, Specification<PortfolioEntry> criteria) {
+        logger.debug("Fetching entry views for user: {}{}", user.getEmail(), accountId != null ? " for account " + accountId : "");
+        return portfolioRepository.findViews(entrySpec(user, accountId, criteria), ScrollPosition.keyset(), 0);
     }
 
-    public Map<EntryType, BigDecimal> getPortfolioSummaryByUser(User user) {
-        logger.debug("Generating portfolio summary for user: {}", user.getEmail());
-        try {
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            Map<EntryType, BigDecimal> summary = entries.stream()
-                .collect(Collectors.groupingBy(
-                    PortfolioEntry::getType,
-                    Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
-            logger.debug("Successfully generated portfolio summary for user: {}", user.getEmail());
-            return summary;
-        } catch (Exception e) {
-            logger.error("Failed to generate portfolio summary for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+    /**
+     * Returns one page of the user's entries (optionally for one account and narrowed by extra criteria),
+     * ordered by (dateAdded DESC, id), starting after the given cursor. Pages are found by keyset on the
+     * (user_id, date_added, id) index, so the cost doesn't grow with how deep the client has paged.
+     */
+    @Transactional(readOnly = true)
+    public EntryPage getEntryPageByUser(User user, UUID accountId, Specification<PortfolioEntry> criteria, String cursor, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-    }
-
-    public Map<String, Map<EntryType, BigDecimal>> getPortfolioSummaryByAccountAndUser(User user) {
-        logger.debug("Generating portfolio summary by account for user: {}", user.getEmail());
-        try {
-            List<PortfolioAccount> accounts = accountService.getAllAccountsByUser(user);
-            Map<UUID, String> accountIdToNameMap = accounts.stream()
-                .collect(Collectors.toMap(PortfolioAccount::getId, PortfolioAccount::getName)); // Corrected: getAccountName to getName
-
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            Map<String, Map<EntryType, BigDecimal>> summaryByAccount = entries.stream()
-                .filter(entry -> entry.getAccount() != null && accountIdToNameMap.containsKey(entry.getAccount().getId()))
-                .collect(Collectors.groupingBy(
-                    entry -> accountIdToNameMap.get(entry.getAccount().getId()), // Group by account name
-                    Collectors.groupingBy(
-                        PortfolioEntry::getType,
-                        Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                    )
-                ));
-            logger.debug("Successfully generated portfolio summary by account for user: {}", user.getEmail());
-            return summaryByAccount;
-        } catch (Exception e) {
-            logger.error("Failed to generate portfolio summary by account for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+        KeysetScrollPosition position = EntryCursor.decode(cursor);
+        logger.debug("Fetching page of {} entries for user: {}{}", pageSize, user.getEmail(), accountId != null ? " for account " + accountId : "");
+        // One extra row tells us whether there is a next page
+        List<PortfolioEntryView> rows = portfolioRepository.findViews(entrySpec(user, accountId, criteria), position, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new EntryPage(rows, null);
         }
+        List<PortfolioEntryView> page = rows.subList(0, pageSize);
+        PortfolioEntryView last = page.get(pageSize - 1);
+        return new EntryPage(page, EntryCursor.encode(last.getDateAdded(), last.getId()));
     }
 
-    public BigDecimal getTotalPortfolioValueByUser(User user) {
-        logger.debug("Calculating total portfolio value for user: {}", user.getEmail());
-        try {
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            BigDecimal totalValue = entries.stream()
-                .map(PortfolioEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            logger.debug("Successfully calculated total portfolio value for user {}: {}", user.getEmail(), totalValue);
-            return totalValue;
-        } catch (Exception e) {
-            logger.error("Failed to calculate total portfolio value for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+    /**
+     * Returns one page of the user's entries matching every filter set on the criteria, as a single
+     * select. Sort values are "property" or "property,asc|desc" over {@link #SEARCH_SORT_PROPERTIES};
+     * the default is newest first.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PortfolioEntryView> searchEntryViews(User user, EntrySearchCriteria criteria, List<String> sort, Integer page, Integer size) {
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
         }
-    }
-    
-    public Map<String, BigDecimal> getPortfolioDistributionByCountry(User user) {
-        logger.debug("Generating portfolio distribution by country for user: {}", user.getEmail());
-        try {
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            Map<String, BigDecimal> distribution = entries.stream()
-                .collect(Collectors.groupingBy(
-                    PortfolioEntry::getCountry,
-                    Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
-            logger.debug("Successfully generated portfolio distribution by country for user: {}", user.getEmail());
-            return distribution;
-        } catch (Exception e) {
-            logger.error("Failed to generate portfolio distribution by country for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // The row offset (plus the look-ahead row) is passed to JPA as an int
+        if ((long) pageNumber * pageSize + pageSize + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page must be at most " + ((Integer.MAX_VALUE - 1L) / pageSize - 1) + " for size " + pageSize);
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
         }
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        PageRequest pageable = PageRequest.of(pageNumber, pageSize, parseSearchSort(sort));
+        logger.debug("Searching entries for user: {} (page {}, size {}, sort {})", user.getEmail(), pageNumber, pageSize, pageable.getSort());
+
+        Specification<PortfolioEntry> spec = PortfolioEntrySpecifications.belongsTo(user)
+            .and(PortfolioEntrySpecifications.matching(criteria));
+        // One extra row tells us whether there is a next page without a count query
+        List<PortfolioEntryView> rows = portfolioRepository.findViews(spec, pageable.getSort(), pageable.getOffset(), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows, pageable, hasNext);
     }
 
-    public Map<String, BigDecimal> getPortfolioDistributionByCurrency(User user) {
-        logger.debug("Generating portfolio distribution by currency for user: {}", user.getEmail());
-        try {
-            List<PortfolioEntry> entries = portfolioRepository.findByUser(user);
-            Map<String, BigDecimal> distribution = entries.stream()
-                .collect(Collectors.groupingBy(
-                    PortfolioEntry::getCurrency,
-                    Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
-            logger.debug("Successfully generated portfolio distribution by currency for user: {}", user.getEmail());
-            return distribution;
-        } catch (Exception e) {
-            logger.error("Failed to generate portfolio distribution by currency for user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw e;
+    // Spring splits a single "amount,desc" parameter on the comma, so the values are read as a token stream:
+    // a property name starts a new order and an "asc"/"desc" token sets the direction of the previous one.
+    private Sort parseSearchSort(List<String> sort) {
+        if (sort == null || sort.isEmpty()) {
+            return DEFAULT_SEARCH_SORT;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String value : sort) {
+            for (String token : value.split(",")) {
+                String trimmed = token.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (SEARCH_SORT_PROPERTIES.contains(trimmed)) {
+                    orders.add(Sort.Order.asc(trimmed));
+                } else if (!orders.isEmpty() && Sort.Direction.fromOptionalString(trimmed).isPresent()) {
+                    Sort.Order last = orders.remove(orders.size() - 1);
+                    orders.add(last.with(Sort.Direction.fromString(trimmed)));
+                } else {
+                    throw new IllegalArgumentException("Unsupported sort: " + value);
+                }
+            }
         }
+        return orders.isEmpty() ? DEFAULT_SEARCH_SORT : Sort.by(orders);
     }
 
-    public List<PortfolioEntry> getCombinedEntriesByUser(User user) {
-        logger.debug("Fetching combined entries for user: {}", user.getEmail());
-        return portfolioRepository.findByUser(user);
+    private Specification<PortfolioEntry> entrySpec(User user, UUID accountId, Specification<PortfolioEntry> criteria) {
+        Specification<PortfolioEntry> spec = PortfolioEntrySpecifications.belongsTo(user);
+        if (accountId != null) {
+            accountService.verifyAccountOwnership(accountId, user);
+            spec = spec.and(PortfolioEntrySpecifications.inAccount(accountId));
+        }
+        return criteria != null ? spec.and(criteria) : spec;
     }
 
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_BY_CURRENCY, key = "#user.id")
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal> getCombinedEntriesByCurrencyAndUser(User user) {
         logger.debug("Fetching portfolio grouped by currency for user: {}", user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .collect(Collectors.groupingBy(
-                PortfolioEntry::getCurrency,
-                Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
+        return aggregateService.getTotals(user, AggregateDimension.CURRENCY);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_BY_COUNTRY, key = "#user.id")
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal> getCombinedEntriesByCountryAndUser(User user) {
         logger.debug("Fetching portfolio grouped by country for user: {}", user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .collect(Collectors.groupingBy(
-                PortfolioEntry::getCountry,
-                Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
+        return aggregateService.getTotals(user, AggregateDimension.COUNTRY);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_BY_SOURCE, key = "#user.id")
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal> getCombinedEntriesBySourceAndUser(User user) {
         logger.debug("Fetching portfolio grouped by source for user: {}", user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .collect(Collectors.groupingBy(
-                PortfolioEntry::getSource,
-                Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
+        return aggregateService.getTotals(user, AggregateDimension.SOURCE);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_BY_TYPE, key = "#user.id")
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal> getCombinedEntriesByTypeAndUser(User user) {
         logger.debug("Fetching portfolio grouped by type for user: {}", user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .collect(Collectors.groupingBy(
-                entry -> entry.getType().toString(),
-                Collectors.mapping(PortfolioEntry::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-            ));
-    }
-
-    public List<PortfolioEntry> getEntriesByCurrencyAndAccountIdAndUser(String currency, UUID accountId, User user) {
-        logger.debug("Fetching entries by currency: {} and account ID: {} for user: {}", currency, accountId, user.getEmail());
-        PortfolioAccount account = accountService.getAccountByIdAndUser(accountId, user);
-        return portfolioRepository.findByAccountAndUser(account, user).stream()
-            .filter(entry -> currency.equals(entry.getCurrency()))
-            .collect(Collectors.toList());
-    }
-
-    public List<PortfolioEntry> getEntriesByCurrencyAndUser(String currency, User user) {
-        logger.debug("Fetching entries by currency: {} for user: {}", currency, user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .filter(entry -> currency.equals(entry.getCurrency()))
-            .collect(Collectors.toList());
+        return aggregateService.getTotals(user, AggregateDimension.TYPE);
     }
 
-    public List<PortfolioEntry> getEntriesByCountryAndAccountIdAndUser(String country, UUID accountId, User user) {
-        logger.debug("Fetching entries by country: {} and account ID: {} for user: {}", country, accountId, user.getEmail());
-        PortfolioAccount account = accountService.getAccountByIdAndUser(accountId, user);
-        return portfolioRepository.findByAccountAndUser(account, user).stream()
-            .filter(entry -> country.equals(entry.getCountry()))
-            .collect(Collectors.toList());
+    /**
+     * The user's entry amounts summed per account and (type, currency, country, source). Summaries in a
+     * base currency are converted from these rows, so they stay cached across FX rate updates.
+     */
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_GROUPS, key = "#user.id")
+    @Transactional(readOnly = true)
+    public List<AccountEntryGroupAmount> getEntryGroupsByUser(User user) {
+        logger.debug("Summing entry groups for user: {}", user.getEmail());
+        List<AccountEntryGroupAmount> rows = portfolioRepository.sumAmountByAccountAndGroupForUser(user);
+        recordEntriesScanned("groups", rows.stream().mapToLong(AccountEntryGroupAmount::getEntryCount).sum());
+        return rows;
     }
 
-    public List<PortfolioEntry> getEntriesByCountryAndUser(String country, User user) {
-        logger.debug("Fetching entries by country: {} for user: {}", country, user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .filter(entry -> country.equals(entry.getCountry()))
-            .collect(Collectors.toList());
-    }
-
-    public List<PortfolioEntry> getEntriesBySourceAndAccountIdAndUser(String source, UUID accountId, User user) {
-        logger.debug("Fetching entries by source: {} and account ID: {} for user: {}", source, accountId, user.getEmail());
-        PortfolioAccount account = accountService.getAccountByIdAndUser(accountId, user);
-        return portfolioRepository.findByAccountAndUser(account, user).stream()
-            .filter(entry -> source.equals(entry.getSource()))
-            .collect(Collectors.toList());
-    }
-
-    public List<PortfolioEntry> getEntriesBySourceAndUser(String source, User user) {
-        logger.debug("Fetching entries by source: {} for user: {}", source, user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .filter(entry -> source.equals(entry.getSource()))
-            .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfig.PORTFOLIO_DASHBOARD, key = "#user.id")
+    @Transactional(readOnly = true)
+    public PortfolioDashboardDto getDashboardByUser(User user) {
+        logger.debug("Generating portfolio dashboard for user: {}", user.getEmail());
+        try {
+            List<AccountEntryGroupAmount> rows = portfolioRepository.sumAmountByAccountAndGroupForUser(user);
+            PortfolioDashboardDto dashboard = portfolioFolds.toDashboard(rows);
+            recordEntriesScanned("dashboard", rows.stream().mapToLong(AccountEntryGroupAmount::getEntryCount).sum());
+            logger.debug("Successfully generated portfolio dashboard from {} groups for user: {}", rows.size(), user.getEmail());
+            return dashboard;
+        } catch (Exception e) {
+            logger.error("Failed to generate portfolio dashboard for user {}: {}", user.getEmail(), e.getMessage(), e);
+            throw e;
+        }
     }
 
-    public List<PortfolioEntry> getEntriesByTypeAndAccountIdAndUser(EntryType type, UUID accountId, User user) {
-        logger.debug("Fetching entries by type: {} and account ID: {} for user: {}", type, accountId, user.getEmail());
-        PortfolioAccount account = accountService.getAccountByIdAndUser(accountId, user);
-        return portfolioRepository.findByAccountAndUser(account, user).stream()
-            .filter(entry -> type.equals(entry.getType()))
-            .collect(Collectors.toList());
+    /**
+     * Sums of the entries the user added between {@code from} and {@code to} (inclusive), per period and type.
+     * Grouping is done by the database, so one row comes back per (period, type) however many entries there are.
+     * Periods without entries are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<ContributionDto> getContributionsByUser(User user, ContributionBucket bucket, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CONTRIBUTION_RANGE_DAYS) {
+            throw new IllegalArgumentException("Contribution range must be at most " + MAX_CONTRIBUTION_RANGE_DAYS + " days");
+        }
+        logger.debug("Summing {} contributions from {} to {} for user: {}", bucket, from, to, user.getEmail());
+        List<BucketTypeAmount> rows = switch (bucket) {
+            case DAY, WEEK -> portfolioRepository.sumAmountByDayBucketAndTypeForUser(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+            case MONTH -> portfolioRepository.sumAmountByMonthBucketAndTypeForUser(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        };
+        recordEntriesScanned("contributions", rows.stream().mapToLong(BucketTypeAmount::getEntryCount).sum());
+        return portfolioFolds.toContributions(rows, bucket);
     }
 
-    public List<PortfolioEntry> getEntriesByTypeAndUser(EntryType type, User user) {
-        logger.debug("Fetching entries by type: {} for user: {}", type, user.getEmail());
-        return portfolioRepository.findByUser(user).stream()
-            .filter(entry -> type.equals(entry.getType()))
-            .collect(Collectors.toList());
+    // Only reached on cache misses, so this counts the entries the database actually summed
+    private void recordEntriesScanned(String aggregation, long entries) {
+        DistributionSummary.builder(MetricsConfig.AGGREGATION_ENTRIES)
+            .description("Entries summed by one aggregation query")
+            .baseUnit("entries")
+            .tag("aggregation", aggregation)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(entries);
     }
 }
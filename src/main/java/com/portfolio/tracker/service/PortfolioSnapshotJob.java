@@ -0,0 +1,127 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly job appending each user's daily portfolio snapshots up to yesterday. Users are read in
+ * chunks by keyset on their ID and the chunks snapshotted in parallel; each user is written in its
+ * own transaction and advances its own watermark, so a failed or interrupted run resumes where it
+ * stopped. Each worker holds a database connection while it writes, so at most {@code parallelism}
+ * chunks are read ahead, and parallelism is kept below the connection pool size so requests still
+ * get connections during the run.
+ */
+@Component
+public class PortfolioSnapshotJob {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotJob.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioSnapshotService snapshotService;
+
+    @Value("${portfolio.history.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${portfolio.history.parallelism:2}")
+    private int parallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if (parallelism >= connectionPoolSize) {
+            logger.warn("portfolio.history.parallelism={} would take every connection in the pool of {}; using {}",
+                parallelism, connectionPoolSize, Math.max(1, connectionPoolSize - 1));
+            parallelism = Math.max(1, connectionPoolSize - 1);
+        }
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("snapshot-worker-", 1).factory()
+            : new CustomizableThreadFactory("snapshot-worker-");
+        executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${portfolio.history.snapshot-cron:0 15 1 * * *}")
+    public void snapshotAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Portfolio snapshot run already in progress; skipping");
+            return;
+        }
+        try {
+            LocalDate through = LocalDate.now().minusDays(1);
+            logger.info("Starting portfolio snapshots through {}", through);
+            Deque<Future<Integer>> inFlight = new ArrayDeque<>();
+            int chunks = 0;
+            int days = 0;
+            List<User> users = userRepository.findByOrderByIdAsc(Limit.of(chunkSize));
+            while (!users.isEmpty()) {
+                // Wait for the oldest chunk before reading another, so users aren't loaded faster than they're written
+                if (inFlight.size() >= parallelism) {
+                    days += inFlight.removeFirst().get();
+                }
+                List<User> chunk = users;
+                inFlight.addLast(executor.submit(() -> snapshotChunk(chunk, through)));
+                chunks++;
+                users = users.size() < chunkSize ? List.of()
+                    : userRepository.findByIdGreaterThanOrderByIdAsc(users.get(users.size() - 1).getId(), Limit.of(chunkSize));
+            }
+            for (Future<Integer> chunk : inFlight) {
+                days += chunk.get();
+            }
+            logger.info("Finished portfolio snapshots through {}: {} user-days written in {} chunks", through, days, chunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Portfolio snapshot run interrupted; it will resume from each user's watermark");
+        } catch (ExecutionException e) {
+            logger.error("Portfolio snapshot run failed: {}", e.getCause().getMessage(), e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int snapshotChunk(List<User> users, LocalDate through) {
+        int days = 0;
+        for (User user : users) {
+            try {
+                days += snapshotService.snapshotUser(user, through);
+            } catch (Exception e) {
+                logger.error("Failed to write portfolio snapshots for user {}: {}", user.getEmail(), e.getMessage(), e);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,166 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.DailyTypeAmount;
+import com.portfolio.tracker.dto.HistoryPointDto;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.HistoryGranularity;
+import com.portfolio.tracker.model.PortfolioSnapshot;
+import com.portfolio.tracker.model.PortfolioSnapshotWatermark;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.PortfolioSnapshotRepository;
+import com.portfolio.tracker.repository.PortfolioSnapshotWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains portfolio_snapshots, the daily per-type value of each user's portfolio, and serves
+ * history from it. A day's value is the sum of every entry added up to the end of that day, so the
+ * first run for a user backfills from their earliest date_added; later runs only append the days
+ * after the user's watermark.
+ */
+@Service
+@Transactional
+public class PortfolioSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotService.class);
+
+    public static final int MAX_HISTORY_DAYS = 3660;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO portfolio_snapshots (user_id, snapshot_date, type, total) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private PortfolioSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PortfolioSnapshotWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the user's snapshots for each day after their watermark up to and including {@code through},
+     * then advances the watermark in the same transaction.
+     *
+     * @return the number of days written
+     */
+    public int snapshotUser(User user, LocalDate through) {
+        Optional<PortfolioSnapshotWatermark> watermark = watermarkRepository.findById(user.getId());
+        LocalDate start;
+        if (watermark.isPresent()) {
+            start = watermark.get().getLastSnapshotDate().plusDays(1);
+        } else {
+            LocalDateTime earliest = portfolioRepository.findEarliestDateAddedByUser(user);
+            if (earliest == null) {
+                return 0;
+            }
+            start = earliest.toLocalDate();
+        }
+        if (start.isAfter(through)) {
+            return 0;
+        }
+        logger.debug("Writing portfolio snapshots from {} to {} for user: {}", start, through, user.getEmail());
+        snapshotRepository.deleteFrom(user.getId(), start);
+
+        // Values at the start of the first day, then each day's additions applied in order
+        Map<EntryType, BigDecimal> running = new EnumMap<>(EntryType.class);
+        portfolioRepository.sumAmountByTypeForUserBefore(user, start.atStartOfDay())
+            .forEach(row -> running.put(row.getType(), row.getTotal()));
+        Map<LocalDate, List<DailyTypeAmount>> addedByDay = portfolioRepository
+            .sumAmountByDayAndTypeForUser(user, start.atStartOfDay(), through.plusDays(1).atStartOfDay()).stream()
+            .collect(Collectors.groupingBy(DailyTypeAmount::getDay));
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        int days = 0;
+        for (LocalDate day = start; !day.isAfter(through); day = day.plusDays(1)) {
+            addedByDay.getOrDefault(day, List.of())
+                .forEach(row -> running.merge(row.getType(), row.getTotal(), BigDecimal::add));
+            for (Map.Entry<EntryType, BigDecimal> entry : running.entrySet()) {
+                batch.add(new Object[]{user.getId(), day, entry.getKey().name(), entry.getValue()});
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+            days++;
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        watermarkRepository.save(new PortfolioSnapshotWatermark(user.getId(), through));
+        return days;
+    }
+
+    /**
+     * Portfolio value per point between {@code from} and {@code to} (inclusive), read from the daily
+     * snapshots. Week and month points are the value on the last day of each period. If the range
+     * includes today, today's point comes from the running aggregates, since it has no snapshot yet.
+     */
+    @Transactional(readOnly = true)
+    public List<HistoryPointDto> getHistory(User user, LocalDate from, LocalDate to, HistoryGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("History range must be at most " + MAX_HISTORY_DAYS + " days");
+        }
+        logger.debug("Reading {} portfolio history from {} to {} for user: {}", granularity, from, to, user.getEmail());
+        TreeMap<LocalDate, HistoryPointDto> daily = new TreeMap<>();
+        for (PortfolioSnapshot snapshot : snapshotRepository.findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(user.getId(), from, to)) {
+            HistoryPointDto point = daily.computeIfAbsent(snapshot.getSnapshotDate(), HistoryPointDto::new);
+            point.getByType().put(snapshot.getType().name(), snapshot.getTotal());
+            point.setTotal(point.getTotal().add(snapshot.getTotal()));
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.isBefore(from) && !today.isAfter(to)) {
+            HistoryPointDto point = new HistoryPointDto(today);
+            portfolioService.getCombinedEntriesByTypeAndUser(user).forEach((type, total) -> {
+                point.getByType().put(type, total);
+                point.setTotal(point.getTotal().add(total));
+            });
+            daily.put(today, point);
+        }
+        if (granularity == HistoryGranularity.DAY) {
+            return new ArrayList<>(daily.values());
+        }
+        // Later days overwrite earlier ones, leaving the last day of each period
+        Map<Object, HistoryPointDto> byPeriod = new LinkedHashMap<>();
+        daily.values().forEach(point -> byPeriod.put(periodOf(point.getDate(), granularity), point));
+        return new ArrayList<>(byPeriod.values());
+    }
+
+    private static Object periodOf(LocalDate date, HistoryGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH -> YearMonth.from(date);
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AccountEntryGroupAmount;
+import com.portfolio.tracker.dto.PortfolioDashboardDto;
+import com.portfolio.tracker.model.AggregateDimension;
+import com.portfolio.tracker.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Portfolio summaries expressed in a chosen base currency. Each (account, type, currency, country, source)
+ * group total is converted with the current {@link FxRateSnapshot} before it is added to any breakdown,
+ * so amounts in different currencies are never summed raw. Totals are rounded to cents after summing.
+ */
+@Service
+public class PortfolioValuationService {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioValuationService.class);
+
+    private static final int AMOUNT_SCALE = 2;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private FxRateService fxRateService;
+
+    @Autowired
+    private PortfolioFolds portfolioFolds;
+
+    /**
+     * @throws IllegalArgumentException if there is no rate for the base currency or for a currency the user holds
+     */
+    public PortfolioDashboardDto getDashboard(User user, String baseCurrency) {
+        logger.debug("Valuing portfolio dashboard in {} for user: {}", baseCurrency, user.getEmail());
+        FxRateSnapshot.Converter converter = fxRateService.getSnapshot().to(baseCurrency);
+        List<AccountEntryGroupAmount> rows = portfolioService.getEntryGroupsByUser(user);
+        PortfolioDashboardDto dashboard = portfolioFolds.toDashboard(rows, row -> converter.convert(row.getTotal(), row.getCurrency()));
+        dashboard.setCurrency(baseCurrency);
+        dashboard.setTotal(round(dashboard.getTotal()));
+        List.of(dashboard.getByType(), dashboard.getByCurrency(), dashboard.getByCountry(), dashboard.getBySource(), dashboard.getByAccount())
+            .forEach(breakdown -> breakdown.replaceAll((key, value) -> round(value)));
+        return dashboard;
+    }
+
+    public Map<String, BigDecimal> getTotals(User user, AggregateDimension dimension, String baseCurrency) {
+        PortfolioDashboardDto dashboard = getDashboard(user, baseCurrency);
+        return switch (dimension) {
+            case TYPE -> dashboard.getByType();
+            case CURRENCY -> dashboard.getByCurrency();
+            case COUNTRY -> dashboard.getByCountry();
+            case SOURCE -> dashboard.getBySource();
+        };
+    }
+
+    private static BigDecimal round(BigDecimal value) {
+        return value.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
@@ -1,13 +1,18 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.config.CacheConfig;
 import com.portfolio.tracker.model.User;
 import com.portfolio.tracker.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class UserService {
@@ -15,7 +20,9 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    // Refreshes the cached user on every login, so profile changes from the provider are picked up
     @Transactional
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#result.id")
     public User processOAuthPostLogin(String email, String name, String providerId, String imageUrl) {
         Optional<User> userOptional = userRepository.findByProviderId(providerId);
 
@@ -49,6 +56,12 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
+    public User getUserById(UUID id) {
+        return userRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + id));
+    }
+
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -0,0 +1,22 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:003
+
+-- Running per-user totals maintained on every entry write (see PortfolioAggregateService)
+CREATE TABLE portfolio_aggregates (
+    user_id UUID NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    group_key VARCHAR(255) NOT NULL,
+    total DECIMAL(19,2) NOT NULL,
+    CONSTRAINT pk_portfolio_aggregates PRIMARY KEY (user_id, dimension, group_key),
+    CONSTRAINT fk_portfolio_aggregate_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+);
+
+-- Backfill from existing entries
+INSERT INTO portfolio_aggregates (user_id, dimension, group_key, total)
+SELECT user_id, 'TYPE', type, SUM(amount) FROM portfolio_entries WHERE user_id IS NOT NULL GROUP BY user_id, type
+UNION ALL
+SELECT user_id, 'CURRENCY', currency, SUM(amount) FROM portfolio_entries WHERE user_id IS NOT NULL GROUP BY user_id, currency
+UNION ALL
+SELECT user_id, 'COUNTRY', country, SUM(amount) FROM portfolio_entries WHERE user_id IS NOT NULL GROUP BY user_id, country
+UNION ALL
+SELECT user_id, 'SOURCE', source, SUM(amount) FROM portfolio_entries WHERE user_id IS NOT NULL GROUP BY user_id, source;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:004
+
+-- Keyset pagination of entry listings orders by (date_added DESC, id); these indexes
+-- let each page start at the cursor position instead of scanning past earlier rows
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_date_id ON portfolio_entries (user_id, date_added DESC, id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_account_date_id ON portfolio_entries (account_id, date_added DESC, id);
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:005
+
+-- Entry listings filtered by currency, country, type or source are served by one query per request;
+-- leading with (user_id, <column>) means only the matching rows are read, and the trailing
+-- (date_added DESC, id) columns return them in listing order so keyset pages need no sort
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_currency ON portfolio_entries (user_id, currency, date_added DESC, id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_country ON portfolio_entries (user_id, country, date_added DESC, id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_type ON portfolio_entries (user_id, type, date_added DESC, id);
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_source ON portfolio_entries (user_id, source, date_added DESC, id);
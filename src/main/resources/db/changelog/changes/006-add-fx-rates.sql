@@ -0,0 +1,11 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:006
+
+-- Local FX rate store, replaced as a whole through PUT /api/fx-rates (see FxRateService).
+-- rate is the value of one unit of currency in the reference currency (portfolio.fx.reference-currency)
+CREATE TABLE fx_rates (
+    currency VARCHAR(3) PRIMARY KEY,
+    rate DECIMAL(24,12) NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_fx_rates_positive CHECK (rate > 0)
+);
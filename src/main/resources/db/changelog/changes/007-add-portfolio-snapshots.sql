@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:007
+
+-- Daily per-user, per-type portfolio values written by PortfolioSnapshotJob; the value for a day
+-- is the sum of every entry added up to the end of that day. History charts read these rows only
+CREATE TABLE portfolio_snapshots (
+    user_id UUID NOT NULL,
+    snapshot_date DATE NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    total DECIMAL(19,2) NOT NULL,
+    CONSTRAINT pk_portfolio_snapshots PRIMARY KEY (user_id, snapshot_date, type),
+    CONSTRAINT fk_portfolio_snapshot_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+);
+
+-- Last day snapshotted per user, so an interrupted run resumes where it stopped
+CREATE TABLE portfolio_snapshot_watermarks (
+    user_id UUID PRIMARY KEY,
+    last_snapshot_date DATE NOT NULL,
+    CONSTRAINT fk_portfolio_snapshot_watermark_user FOREIGN KEY (user_id) REFERENCES app_user(id) ON DELETE CASCADE
+);
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+--changeset portfolio-tracker:008
+
+-- Contribution analytics scan a user's entries by date_added range and sum amount per type;
+-- carrying type and amount in the index lets PostgreSQL answer them with an index-only scan
+CREATE INDEX IF NOT EXISTS idx_portfolio_entries_user_date_contrib ON portfolio_entries (user_id, date_added) INCLUDE (type, amount);
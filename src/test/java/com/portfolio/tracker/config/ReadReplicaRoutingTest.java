@@ -0,0 +1,215 @@
+package com.portfolio.tracker.config;
+
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.PortfolioOidcUser;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioAccountRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import com.portfolio.tracker.service.FxRateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing between two H2 databases. The replica starts as a copy of the primary and then lags behind it:
+ * entries written straight to the primary afterwards are missing from the replica, so each export shows
+ * which database it read from.
+ */
+@SpringBootTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "portfolio.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "portfolio.datasource.replica.username=sa",
+    "portfolio.datasource.replica.maximum-pool-size=2"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    // Loads its rates at startup, before the replica has a schema
+    @MockBean
+    private FxRateService fxRateService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioAccountRepository accountRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private User user;
+    private PortfolioAccount account;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void replicateThenLag() {
+        ReadReplicaDataSource routing = (ReadReplicaDataSource) dataSource;
+        primary = new JdbcTemplate(routing.getPrimary());
+        replica = new JdbcTemplate(routing.getReplica());
+
+        user = userRepository.save(new User(UUID.randomUUID() + "@example.com", "Routing", UUID.randomUUID().toString(), null));
+        account = new PortfolioAccount();
+        account.setUser(user);
+        account.setName("Brokerage");
+        account.setRelationship("Self");
+        account = accountRepository.save(account);
+        portfolioRepository.save(entry("Replicated"));
+
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        // Written after the copy, so only the primary has it
+        portfolioRepository.save(entry("Lagging"));
+
+        session = login(user);
+    }
+
+    @AfterEach
+    void unpin() {
+        ReplicaStickiness.unpin();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplicaUnlessPinned() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertEquals(List.of("Lagging", "Replicated"), readWrite.execute(status -> sources()));
+        assertEquals(List.of("Replicated"), readOnly.execute(status -> sources()));
+
+        ReplicaStickiness.pinToPrimary();
+        assertEquals(List.of("Lagging", "Replicated"), readOnly.execute(status -> sources()));
+    }
+
+    @Test
+    void streamedExportReadsTheReplicaWithoutARecentWrite() throws Exception {
+        String csv = streamCsvExport();
+
+        assertTrue(csv.contains("Replicated"), csv);
+        assertFalse(csv.contains("Lagging"), csv);
+    }
+
+    @Test
+    void streamedExportRightAfterAWriteReadsThePrimary() throws Exception {
+        mvc.perform(post("/api/portfolio/entries").session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountId\":\"" + account.getId() + "\",\"type\":\"STOCK\",\"source\":\"Posted\",\"amount\":5,\"currency\":\"USD\",\"country\":\"US\"}"))
+            .andExpect(status().isOk());
+
+        String csv = streamCsvExport();
+
+        assertTrue(csv.contains("Posted"), csv);
+        assertTrue(csv.contains("Lagging"), csv);
+    }
+
+    @Test
+    void exportJobReadsThePrimaryLikeTheRequestThatQueuedIt() throws Exception {
+        MvcResult queued = mvc.perform(post("/api/portfolio/exports").param("format", "csv").session(session))
+            .andExpect(status().isAccepted())
+            .andReturn();
+        String location = queued.getResponse().getHeader("Location");
+
+        Instant deadline = Instant.now().plusSeconds(30);
+        while (!mvc.perform(get(location).session(session)).andReturn().getResponse().getContentAsString().contains("\"COMPLETED\"")) {
+            assertTrue(Instant.now().isBefore(deadline), "Export job did not complete");
+            Thread.sleep(50);
+        }
+        String csv = mvc.perform(get(location + "/file").session(session)).andReturn().getResponse().getContentAsString();
+
+        assertTrue(csv.contains("Lagging"), csv);
+    }
+
+    private String streamCsvExport() throws Exception {
+        MvcResult started = mvc.perform(get("/api/portfolio/export/csv").session(session))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mvc.perform(asyncDispatch(started)).andReturn().getResponse().getContentAsString();
+    }
+
+    private List<String> sources() {
+        return new JdbcTemplate(dataSource).queryForList(
+            "SELECT source FROM portfolio_entries WHERE user_id = ? ORDER BY source", String.class, user.getId());
+    }
+
+    private PortfolioEntry entry(String source) {
+        PortfolioEntry entry = new PortfolioEntry();
+        entry.setUser(user);
+        entry.setAccount(account);
+        entry.setType(EntryType.STOCK);
+        entry.setSource(source);
+        entry.setAmount(BigDecimal.TEN);
+        entry.setCurrency("USD");
+        entry.setCountry("US");
+        entry.setDateAdded(LocalDateTime.now());
+        return entry;
+    }
+
+    // Signs in the way CustomOidcUserService does, with the user's ID on the principal
+    private static MockHttpSession login(User user) {
+        Map<String, Object> claims = Map.of("sub", user.getProviderId(), "email", user.getEmail());
+        Instant now = Instant.now();
+        OidcIdToken idToken = new OidcIdToken("test", now, now.plus(Duration.ofHours(1)), claims);
+        OidcUserInfo userInfo = new OidcUserInfo(claims);
+        PortfolioOidcUser principal = new PortfolioOidcUser(List.of(new OidcUserAuthority(idToken, userInfo)), idToken, userInfo, user.getId());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        return session;
+    }
+}
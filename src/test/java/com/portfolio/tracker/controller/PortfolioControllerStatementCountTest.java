@@ -0,0 +1,233 @@
+package com.portfolio.tracker.controller;
+
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.PortfolioOidcUser;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioAccountRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements per request on the endpoints that return entries. PortfolioEntry.account is lazy, so
+ * each of them has to load the accounts together with the entries: the counts below stay the same
+ * however many entries and accounts the user has, and an extra select per account shows up as a
+ * failure here. The user is looked up once per test, by the first request (after that it is cached).
+ */
+@SpringBootTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class PortfolioControllerStatementCountTest {
+
+    private static final int ENTRIES_PER_ACCOUNT = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PortfolioAccountRepository accountRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    private Statistics statistics;
+    private User user;
+    private PortfolioAccount brokerage;
+    private List<PortfolioEntry> entries;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void persistEntries() {
+        user = userRepository.save(new User(UUID.randomUUID() + "@example.com", "Stats", UUID.randomUUID().toString(), null));
+        brokerage = accountRepository.save(account("Brokerage"));
+        PortfolioAccount pension = accountRepository.save(account("Pension"));
+        entries = new ArrayList<>();
+        for (PortfolioAccount account : List.of(brokerage, pension)) {
+            for (int i = 0; i < ENTRIES_PER_ACCOUNT; i++) {
+                entries.add(portfolioRepository.save(entry(account, i)));
+            }
+        }
+        session = login(user);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingRunsTheUserLookupAndOneEntryQuery() throws Exception {
+        mvc.perform(get("/api/portfolio").session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(entries.size()));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void accountListingAddsTheOwnershipCheck() throws Exception {
+        mvc.perform(get("/api/portfolio").param("accountId", brokerage.getId().toString()).session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(ENTRIES_PER_ACCOUNT));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetPagesRunOneEntryQueryEach() throws Exception {
+        MvcResult first = mvc.perform(get("/api/portfolio").param("limit", "4").session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4))
+            .andReturn();
+        String cursor = first.getResponse().getHeader(PortfolioController.NEXT_CURSOR_HEADER);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mvc.perform(get("/api/portfolio").param("limit", "4").param("cursor", cursor).session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filteredListingsRunOneEntryQuery() throws Exception {
+        mvc.perform(get("/api/portfolio/currency/USD").session(session)).andExpect(status().isOk());
+        statistics.clear();
+
+        for (String path : List.of("/api/portfolio/currency/USD", "/api/portfolio/country/US",
+                "/api/portfolio/source/Broker", "/api/portfolio/type/STOCK")) {
+            mvc.perform(get(path).session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(entries.size()));
+            assertEquals(1, statistics.getPrepareStatementCount(), path);
+            statistics.clear();
+        }
+    }
+
+    @Test
+    void searchPagesRunOneEntryQueryWithoutACount() throws Exception {
+        mvc.perform(get("/api/portfolio/currency/USD").session(session)).andExpect(status().isOk());
+        statistics.clear();
+
+        mvc.perform(get("/api/portfolio/search").param("currencies", "USD").param("sort", "amount,desc")
+                .param("page", "1").param("size", "4").session(session))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // The writes depend on how many aggregates change, so this only checks that no account is fetched on its own
+    @Test
+    void batchUpdateLoadsTheEntriesWithTheirAccounts() throws Exception {
+        StringBuilder operations = new StringBuilder();
+        for (PortfolioEntry entry : entries) {
+            operations.append(operations.length() == 0 ? "[" : ",")
+                .append("{\"action\":\"UPDATE\",\"id\":\"").append(entry.getId()).append("\",\"entry\":")
+                .append("{\"type\":\"STOCK\",\"source\":\"Broker\",\"amount\":200,\"currency\":\"USD\",\"country\":\"US\"}}");
+        }
+        operations.append(']');
+
+        mvc.perform(post("/api/portfolio/entries/batch").session(session)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(operations.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].entry.account.name").exists());
+
+        assertEquals(0, statistics.getEntityStatistics(PortfolioAccount.class.getName()).getFetchCount());
+    }
+
+    @Test
+    void exportsStreamTheEntriesWithTheirAccountsInOneQuery() throws Exception {
+        mvc.perform(get("/api/portfolio/currency/USD").session(session)).andExpect(status().isOk());
+
+        for (String format : List.of("csv", "xlsx")) {
+            statistics.clear();
+            MvcResult started = mvc.perform(get("/api/portfolio/export/" + format).session(session))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+            assertEquals(1, statistics.getPrepareStatementCount(), format);
+        }
+    }
+
+    private PortfolioAccount account(String name) {
+        PortfolioAccount account = new PortfolioAccount();
+        account.setUser(user);
+        account.setName(name);
+        account.setRelationship("Self");
+        return account;
+    }
+
+    private PortfolioEntry entry(PortfolioAccount account, int i) {
+        PortfolioEntry entry = new PortfolioEntry();
+        entry.setUser(user);
+        entry.setAccount(account);
+        entry.setType(EntryType.STOCK);
+        entry.setSource("Broker");
+        entry.setAmount(new BigDecimal("100.00"));
+        entry.setCurrency("USD");
+        entry.setCountry("US");
+        entry.setDateAdded(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(i));
+        return entry;
+    }
+
+    // Signs in the way CustomOidcUserService does, with the user's ID on the principal
+    private static MockHttpSession login(User user) {
+        Map<String, Object> claims = Map.of("sub", user.getProviderId(), "email", user.getEmail());
+        Instant now = Instant.now();
+        OidcIdToken idToken = new OidcIdToken("test", now, now.plus(Duration.ofHours(1)), claims);
+        OidcUserInfo userInfo = new OidcUserInfo(claims);
+        PortfolioOidcUser principal = new PortfolioOidcUser(List.of(new OidcUserAuthority(idToken, userInfo)), idToken, userInfo, user.getId());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new OAuth2AuthenticationToken(principal, principal.getAuthorities(), "google"));
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        return session;
+    }
+}
@@ -0,0 +1,185 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.PortfolioEntryView;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.portfolio.tracker.repository.PortfolioEntrySpecifications.belongsTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pages of {@link PortfolioEntryViewQueries#findViews}: walking every page returns each entry once in
+ * (dateAdded DESC, id) order, and a deep page is planned as an index range starting at the cursor rather
+ * than a scan from the newest row.
+ */
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.portfolio.tracker.repository.PortfolioEntryViewQueriesTest$LastSelect"
+})
+class PortfolioEntryViewQueriesTest {
+
+    private static final int ENTRIES = 1000;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void persistEntries() throws IOException {
+        // The schema comes from Hibernate here, so add the keyset index from the changelog
+        jdbcTemplate.execute(new ClassPathResource("db/changelog/changes/004-add-entry-keyset-indexes.sql")
+            .getContentAsString(StandardCharsets.UTF_8));
+
+        user = entityManager.persist(new User("keyset@example.com", "Keyset", "keyset", null));
+        User other = entityManager.persist(new User("other@example.com", "Other", "other", null));
+        PortfolioAccount account = entityManager.persist(account(user));
+        PortfolioAccount otherAccount = entityManager.persist(account(other));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < ENTRIES; i++) {
+            // Three entries per timestamp, so pages end in the middle of ties on dateAdded
+            entityManager.persist(entry(user, account, start.plusMinutes(i / 3)));
+            entityManager.persist(entry(other, otherAccount, start.plusMinutes(i / 3)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesReturnEveryEntryOnceInOrder() {
+        List<PortfolioEntryView> all = portfolioRepository.findViews(belongsTo(user), ScrollPosition.keyset(), 0);
+
+        List<PortfolioEntryView> paged = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        List<PortfolioEntryView> page;
+        do {
+            page = portfolioRepository.findViews(belongsTo(user), position, PAGE_SIZE);
+            paged.addAll(page);
+            if (!page.isEmpty()) {
+                position = after(page.get(page.size() - 1));
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        assertEquals(ENTRIES, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(!all.get(i).getDateAdded().isAfter(all.get(i - 1).getDateAdded()), "Entries are not newest first");
+        }
+        assertEquals(all.stream().map(PortfolioEntryView::getId).toList(), paged.stream().map(PortfolioEntryView::getId).toList());
+    }
+
+    @Test
+    void deepPageSeeksTheIndexToTheCursor() throws Exception {
+        List<PortfolioEntryView> all = portfolioRepository.findViews(belongsTo(user), ScrollPosition.keyset(), 0);
+        PortfolioEntryView cursor = all.get(ENTRIES - PAGE_SIZE - 1);
+
+        LastSelect.sql = null;
+        List<PortfolioEntryView> page = portfolioRepository.findViews(belongsTo(user), after(cursor), PAGE_SIZE);
+        assertEquals(all.subList(ENTRIES - PAGE_SIZE, ENTRIES).stream().map(PortfolioEntryView::getId).toList(),
+            page.stream().map(PortfolioEntryView::getId).toList());
+
+        // H2 prints the index and the conditions it seeks on in a comment after the table
+        String plan = explain(LastSelect.sql);
+        String entriesScan = plan.substring(plan.indexOf("\"PORTFOLIO_ENTRIES\""));
+        String indexCondition = entriesScan.substring(entriesScan.indexOf("/*"), entriesScan.indexOf("*/"));
+        assertTrue(indexCondition.contains("IDX_PORTFOLIO_ENTRIES_USER_DATE_ID") && indexCondition.contains("DATE_ADDED <="),
+            "Keyset page is not an index range from the cursor: " + plan);
+    }
+
+    private static KeysetScrollPosition after(PortfolioEntryView view) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("dateAdded", view.getDateAdded());
+        keys.put("id", view.getId());
+        return ScrollPosition.forward(keys);
+    }
+
+    // The plan only depends on which columns the conditions constrain, so any value of the right type will do
+    private String explain(String select) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + select)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    switch (parameters.getParameterType(i)) {
+                        case Types.TIMESTAMP -> statement.setTimestamp(i, Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 12, 0)));
+                        case Types.INTEGER, Types.BIGINT -> statement.setInt(i, PAGE_SIZE);
+                        default -> statement.setObject(i, UUID.randomUUID());
+                    }
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static PortfolioAccount account(User owner) {
+        PortfolioAccount account = new PortfolioAccount();
+        account.setUser(owner);
+        account.setName("Brokerage");
+        account.setRelationship("Self");
+        return account;
+    }
+
+    private static PortfolioEntry entry(User owner, PortfolioAccount account, LocalDateTime dateAdded) {
+        PortfolioEntry entry = new PortfolioEntry();
+        entry.setUser(owner);
+        entry.setAccount(account);
+        entry.setType(EntryType.STOCK);
+        entry.setSource("Broker");
+        entry.setAmount(BigDecimal.TEN);
+        entry.setCurrency("USD");
+        entry.setCountry("US");
+        entry.setDateAdded(dateAdded);
+        return entry;
+    }
+
+    /**
+     * Keeps the last entry select Hibernate prepared, so the test can ask H2 for its plan.
+     */
+    public static class LastSelect implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            if (statement.startsWith("select") && statement.contains("portfolio_entries")) {
+                sql = statement;
+            }
+            return statement;
+        }
+    }
+}
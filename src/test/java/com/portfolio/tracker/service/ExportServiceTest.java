@@ -0,0 +1,109 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.PortfolioAccount;
+import com.portfolio.tracker.model.PortfolioEntry;
+import com.portfolio.tracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Exports of {@value #ROWS} entries, generated one at a time as the database stream would deliver them.
+ * Tagged bounded-heap, so it runs in the boundedHeapTest task with a small heap (see build.gradle), where an
+ * export that collects its rows in memory fails, either with an OutOfMemoryError or by timing out while the
+ * JVM thrashes in GC.
+ */
+@Tag("bounded-heap")
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    private static final int ROWS = 500_000;
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    private final User user = new User("export@example.com", "Export", "export", null);
+
+    @BeforeEach
+    void streamEntries() {
+        PortfolioAccount account = new PortfolioAccount();
+        account.setId(UUID.randomUUID());
+        account.setName("Brokerage");
+        doAnswer(invocation -> {
+            Consumer<PortfolioEntry> action = invocation.getArgument(2);
+            LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+            for (int i = 0; i < ROWS; i++) {
+                PortfolioEntry entry = new PortfolioEntry();
+                entry.setId(UUID.randomUUID());
+                entry.setAccount(account);
+                entry.setType(EntryType.values()[i % EntryType.values().length]);
+                entry.setSource("Broker " + (i % 7));
+                entry.setAmount(BigDecimal.valueOf(i, 2));
+                entry.setCurrency(i % 2 == 0 ? "USD" : "EUR");
+                entry.setCountry(i % 2 == 0 ? "US" : "DE");
+                entry.setNotes(i % 10 == 0 ? "Monthly contribution " + i : null);
+                entry.setDateAdded(start.plusMinutes(i));
+                action.accept(entry);
+            }
+            return null;
+        }).when(portfolioService).forEachEntry(eq(user), isNull(), any());
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void writesLargeXlsxExportWithinBoundedHeap() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+
+        exportService.writeEntriesToXlsx(user, null, out);
+
+        assertTrue(out.count > 0, "XLSX export wrote nothing");
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void writesLargeCsvExportWithinBoundedHeap() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+
+        exportService.writeEntriesToCsv(user, null, out);
+
+        // Header plus one line per entry, each at least the 36-character entry ID long
+        assertTrue(out.count > (long) ROWS * 36, "CSV export is shorter than " + ROWS + " rows");
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
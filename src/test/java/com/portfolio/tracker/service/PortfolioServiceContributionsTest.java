@@ -0,0 +1,95 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.BucketTypeAmount;
+import com.portfolio.tracker.dto.ContributionDto;
+import com.portfolio.tracker.model.ContributionBucket;
+import com.portfolio.tracker.model.EntryType;
+import com.portfolio.tracker.model.User;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Weekly contributions are folded from the database's day buckets into ISO weeks (Monday to Sunday),
+ * so the week an entry lands in doesn't depend on the database or its locale.
+ */
+@ExtendWith(MockitoExtension.class)
+class PortfolioServiceContributionsTest {
+
+    // 2024-03-10 is a Sunday, 2024-03-11 the Monday after it
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 3, 10);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 3, 11);
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PortfolioFolds portfolioFolds = new PortfolioFolds();
+
+    @InjectMocks
+    private PortfolioService portfolioService;
+
+    private final User user = new User("weeks@example.com", "Weeks", "weeks", null);
+
+    @Test
+    void sundayClosesTheIsoWeekAndMondayStartsTheNextOne() {
+        LocalDate from = SUNDAY.minusDays(6);
+        LocalDate to = MONDAY.plusDays(6);
+        when(portfolioRepository.sumAmountByDayBucketAndTypeForUser(user, from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
+            .thenReturn(List.of(
+                new Row(SUNDAY.minusDays(6).atStartOfDay(), EntryType.STOCK, "10.00"),
+                new Row(SUNDAY.atStartOfDay(), EntryType.STOCK, "5.00"),
+                new Row(SUNDAY.atStartOfDay(), EntryType.CASH, "1.00"),
+                new Row(MONDAY.atStartOfDay(), EntryType.STOCK, "7.00")));
+
+        List<ContributionDto> weeks = portfolioService.getContributionsByUser(user, ContributionBucket.WEEK, from, to);
+
+        assertEquals(2, weeks.size());
+        assertEquals(LocalDate.of(2024, 3, 4), weeks.get(0).getPeriodStart());
+        assertEquals(new BigDecimal("16.00"), weeks.get(0).getTotal());
+        assertEquals(Map.of("STOCK", new BigDecimal("15.00"), "CASH", new BigDecimal("1.00")), weeks.get(0).getByType());
+        assertEquals(MONDAY, weeks.get(1).getPeriodStart());
+        assertEquals(new BigDecimal("7.00"), weeks.get(1).getTotal());
+    }
+
+    @Test
+    void dayBucketsAreReturnedAsIs() {
+        when(portfolioRepository.sumAmountByDayBucketAndTypeForUser(user, SUNDAY.atStartOfDay(), MONDAY.plusDays(1).atStartOfDay()))
+            .thenReturn(List.of(
+                new Row(SUNDAY.atStartOfDay(), EntryType.STOCK, "5.00"),
+                new Row(MONDAY.atStartOfDay(), EntryType.STOCK, "7.00")));
+
+        List<ContributionDto> days = portfolioService.getContributionsByUser(user, ContributionBucket.DAY, SUNDAY, MONDAY);
+
+        assertEquals(List.of(SUNDAY, MONDAY), days.stream().map(ContributionDto::getPeriodStart).toList());
+    }
+
+    private record Row(LocalDateTime getBucket, EntryType getType, BigDecimal getTotal) implements BucketTypeAmount {
+        Row(LocalDateTime bucket, EntryType type, String total) {
+            this(bucket, type, new BigDecimal(total));
+        }
+
+        @Override
+        public long getEntryCount() {
+            return 1;
+        }
+    }
+}